@@ -59,6 +59,11 @@ public class CxFlowRunner implements ApplicationRunner {
 
     public static final String PARSE_OPTION = "parse";
     public static final String BATCH_OPTION = "batch";
+
+    /**
+     * Command line option that only logs the issues that publishing the results would create, update and close.
+     */
+    public static final String DRY_RUN_OPTION = "dry-run";
     
     private final FlowProperties flowProperties;
     private final CxProperties cxProperties;
@@ -344,6 +349,7 @@ public class CxFlowRunner implements ApplicationRunner {
 				.altProject(altProject)
                 .altFields(altFields)
                 .forceScan(force)
+                .dryRun(args.containsOption(DRY_RUN_OPTION))
                 .build();
 
         request = configOverrider.overrideScanRequestProperties(o, request);
@@ -20,7 +20,16 @@ public class ADOProperties extends RepoProperties{
     private String closedStatus = "Done";
     private String projectName;
     private String namespace;
-    
+    private Integer maxConcurrentBatchRequests = 4;
+
+    public Integer getMaxConcurrentBatchRequests() {
+        return maxConcurrentBatchRequests;
+    }
+
+    public void setMaxConcurrentBatchRequests(Integer maxConcurrentBatchRequests) {
+        this.maxConcurrentBatchRequests = maxConcurrentBatchRequests;
+    }
+
     public String getNamespace() {
         return namespace;
     }
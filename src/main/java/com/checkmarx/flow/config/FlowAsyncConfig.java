@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.beans.ConstructorProperties;
 
@@ -53,6 +54,51 @@ public class FlowAsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    @Bean("vulnerabilityScanner")
+    public ThreadPoolTaskExecutor vulnerabilityScannerTaskExecutor() {
+        int poolSize = Math.max(1, properties.getScannerPoolSize());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("vuln-scanner");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean("scanCompletion")
+    public ThreadPoolTaskScheduler scanCompletionTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("scan-tracker");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @Bean("jiraPublish")
+    public ThreadPoolTaskExecutor jiraPublishTaskExecutor(JiraProperties jiraProperties) {
+        int poolSize = Math.max(1, jiraProperties.getMaxConcurrentRequests());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        //unbounded queue: a single publish may queue more findings than QUEUE_CAPACITY
+        executor.setThreadNamePrefix("jira-publish");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean("issueTracker")
+    public ThreadPoolTaskExecutor issueTrackerTaskExecutor() {
+        int poolSize = Math.max(1, properties.getIssueTrackerPoolSize());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        //unbounded queue: tasks are only submitted once the tracker limits allow it
+        executor.setThreadNamePrefix("issue-tracker");
+        executor.initialize();
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler () {
         return (throwable, method, objects) -> {
@@ -5,6 +5,7 @@ import com.checkmarx.flow.utils.ScanUtils;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -43,6 +44,27 @@ public class FlowConfig {
         return restTemplate;
     }
 
+    /**
+     * Sends request bodies as they are written (chunked), instead of buffering them first. Only created when a
+     * tracker streams its output; the factory is a bean of its own so that its HttpClient is closed on shutdown.
+     */
+    @Bean(name = "flowStreamingRestTemplate")
+    @Lazy
+    public RestTemplate getStreamingRestTemplate() {
+        return new RestTemplate(getStreamingRequestFactory());
+    }
+
+    @Bean(name = "flowStreamingRequestFactory")
+    @Lazy
+    public HttpComponentsClientHttpRequestFactory getStreamingRequestFactory() {
+        HttpComponentsClientHttpRequestFactory requestFactory = new
+                HttpComponentsClientHttpRequestFactory(HttpClientBuilder.create().useSystemProperties().build());
+        requestFactory.setConnectTimeout(properties.getHttpConnectionTimeout());
+        requestFactory.setReadTimeout(properties.getHttpReadTimeout());
+        requestFactory.setBufferRequestBody(false);
+        return requestFactory;
+    }
+
     @Bean
     public JavaMailSender getJavaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
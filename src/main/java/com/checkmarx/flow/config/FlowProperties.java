@@ -6,6 +6,7 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -44,6 +45,15 @@ public class FlowProperties {
     private Integer httpReadTimeout = 120000;
     private boolean listFalsePositives = false;
     private boolean scanResubmit = false;
+    private boolean scanCompletionTracking = false;
+    private Integer scanCompletionPollInterval = 15;
+    private Integer scanCompletionMaxPollInterval = 120;
+    private Integer scanCompletionBatchSize = 50;
+    private boolean parallelScanners = false;
+    private Integer scannerPoolSize = 8;
+    private Integer scannerTimeout = 180;
+    private Integer issueTrackerPoolSize = 8;
+    private Map<String, IssueTrackerLimits> issueTrackerLimits = new HashMap<>();
     private Mail mail;
     private Map<FindingSeverity,Integer> thresholds;
 
@@ -298,6 +308,111 @@ public class FlowProperties {
 
     public void setScanResubmit(boolean scanResubmit) {this.scanResubmit = scanResubmit;}
 
+    /**
+     * Affects the way CxFlow waits for a SAST scan submitted by a webhook.
+     * @return
+     * true: the scan is registered with a shared poller and the webhook thread is released right after submission.<br>
+     * false: the webhook thread blocks until the scan is completed.
+     */
+    public boolean isScanCompletionTracking() {
+        return scanCompletionTracking;
+    }
+
+    public void setScanCompletionTracking(boolean scanCompletionTracking) {
+        this.scanCompletionTracking = scanCompletionTracking;
+    }
+
+    /**
+     * Initial number of seconds between two status checks of the same tracked scan.
+     */
+    public Integer getScanCompletionPollInterval() {
+        return scanCompletionPollInterval;
+    }
+
+    public void setScanCompletionPollInterval(Integer scanCompletionPollInterval) {
+        this.scanCompletionPollInterval = scanCompletionPollInterval;
+    }
+
+    /**
+     * Upper bound (in seconds) for the poll interval of a tracked scan, which doubles after each unfinished check.
+     */
+    public Integer getScanCompletionMaxPollInterval() {
+        return scanCompletionMaxPollInterval;
+    }
+
+    public void setScanCompletionMaxPollInterval(Integer scanCompletionMaxPollInterval) {
+        this.scanCompletionMaxPollInterval = scanCompletionMaxPollInterval;
+    }
+
+    /**
+     * Maximum number of scan statuses requested from CxSAST in a single poller run.
+     */
+    public Integer getScanCompletionBatchSize() {
+        return scanCompletionBatchSize;
+    }
+
+    public void setScanCompletionBatchSize(Integer scanCompletionBatchSize) {
+        this.scanCompletionBatchSize = scanCompletionBatchSize;
+    }
+
+    /**
+     * true: enabled vulnerability scanners run concurrently and their results are merged as they complete.<br>
+     * false: enabled vulnerability scanners run one after another on the webhook thread.
+     */
+    public boolean isParallelScanners() {
+        return parallelScanners;
+    }
+
+    public void setParallelScanners(boolean parallelScanners) {
+        this.parallelScanners = parallelScanners;
+    }
+
+    /**
+     * Number of threads shared by all scanners when {@link #isParallelScanners()} is set.
+     */
+    public Integer getScannerPoolSize() {
+        return scannerPoolSize;
+    }
+
+    public void setScannerPoolSize(Integer scannerPoolSize) {
+        this.scannerPoolSize = scannerPoolSize;
+    }
+
+    /**
+     * Number of minutes a single scanner may take before its results are left out of the combined results.
+     * Only applies when {@link #isParallelScanners()} is set.
+     */
+    public Integer getScannerTimeout() {
+        return scannerTimeout;
+    }
+
+    public void setScannerTimeout(Integer scannerTimeout) {
+        this.scannerTimeout = scannerTimeout;
+    }
+
+    /**
+     * Number of threads shared by all custom issue tracker beans for creating, updating and closing issues.
+     */
+    public Integer getIssueTrackerPoolSize() {
+        return issueTrackerPoolSize;
+    }
+
+    public void setIssueTrackerPoolSize(Integer issueTrackerPoolSize) {
+        this.issueTrackerPoolSize = issueTrackerPoolSize;
+    }
+
+    /**
+     * Concurrency and rate limits by custom issue tracker bean name (e.g. GitLab, GitHub, Azure), shared by all the
+     * publishes of the bean. Without an entry, each publish sends one request at a time, without a rate limit.
+     */
+    public Map<String, IssueTrackerLimits> getIssueTrackerLimits() {
+        return issueTrackerLimits;
+    }
+
+    public void setIssueTrackerLimits(Map<String, IssueTrackerLimits> issueTrackerLimits) {
+        this.issueTrackerLimits = issueTrackerLimits;
+    }
+
     public Map<FindingSeverity, Integer> getThresholds() {
         return thresholds;
     }
@@ -306,6 +421,33 @@ public class FlowProperties {
         this.thresholds = thresholds;
     }
 
+    public static class IssueTrackerLimits {
+        private Integer maxConcurrentRequests;
+        private Double requestsPerSecond;
+
+        /**
+         * Maximum number of tracker calls (single-item or batch) in progress at the same time, or null for no limit.
+         */
+        public Integer getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        /**
+         * Maximum number of tracker calls started per second, or null for no limit.
+         */
+        public Double getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public void setRequestsPerSecond(Double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+        }
+    }
+
     public static class Mail {
         private String host;
         private Integer port = 25;
@@ -9,6 +9,60 @@ import org.springframework.validation.annotation.Validated;
 @Validated
 public class GitHubProperties extends RepoProperties {
 
+    private String issueLabel;
+    private Integer issuePageCacheSize = 100;
+    private String graphqlUrl;
+    private Integer graphqlBatchSize = 20;
+
+    /**
+     * Label added to the issues created by CxFlow. If set, only issues with this label are requested from GitHub
+     * instead of every issue of the repository; issues created before the label was configured have to be labelled
+     * manually to keep being tracked.
+     */
+    public String getIssueLabel() {
+        return issueLabel;
+    }
+
+    public void setIssueLabel(String issueLabel) {
+        this.issueLabel = issueLabel;
+    }
+
+    /**
+     * Number of issue list pages kept with their ETag. Pages that didn't change since they were cached are
+     * revalidated with a conditional request, which doesn't count against the GitHub rate limit. 0 disables the cache.
+     */
+    public Integer getIssuePageCacheSize() {
+        return issuePageCacheSize;
+    }
+
+    public void setIssuePageCacheSize(Integer issuePageCacheSize) {
+        this.issuePageCacheSize = issuePageCacheSize;
+    }
+
+    /**
+     * GraphQL endpoint, e.g. https://api.github.com/graphql. If set, issues are created and closed with batches of
+     * GraphQL mutations instead of one REST request per issue. REST is still used for updates, and for batches
+     * that GitHub rejects as a whole.
+     */
+    public String getGraphqlUrl() {
+        return graphqlUrl;
+    }
+
+    public void setGraphqlUrl(String graphqlUrl) {
+        this.graphqlUrl = graphqlUrl;
+    }
+
+    /**
+     * Maximum number of mutations sent in a single GraphQL request.
+     */
+    public Integer getGraphqlBatchSize() {
+        return graphqlBatchSize;
+    }
+
+    public void setGraphqlBatchSize(Integer graphqlBatchSize) {
+        this.graphqlBatchSize = graphqlBatchSize;
+    }
+
     public String getMergeNoteUri(String namespace, String repo, String mergeId){
         String format = "%s/%s/%s/issues/%s/comments";
         return String.format(format, getApiUrl(), namespace, repo, mergeId);
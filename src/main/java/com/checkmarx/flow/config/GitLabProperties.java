@@ -11,6 +11,33 @@ public class GitLabProperties extends RepoProperties {
 
     private static final String MERGE_NOTE = "%s/projects/%s/merge_requests/%s/notes";
 
+    private String issueLabel;
+    private Integer maxConcurrentPageRequests = 4;
+
+    /**
+     * Label added to the issues created by CxFlow. If set, only issues with this label are requested from GitLab
+     * instead of every issue of the project; issues created before the label was configured have to be labelled
+     * manually to keep being tracked.
+     */
+    public String getIssueLabel() {
+        return issueLabel;
+    }
+
+    public void setIssueLabel(String issueLabel) {
+        this.issueLabel = issueLabel;
+    }
+
+    /**
+     * Maximum number of issue list pages requested at the same time.
+     */
+    public Integer getMaxConcurrentPageRequests() {
+        return maxConcurrentPageRequests;
+    }
+
+    public void setMaxConcurrentPageRequests(Integer maxConcurrentPageRequests) {
+        this.maxConcurrentPageRequests = maxConcurrentPageRequests;
+    }
+
     public String getGitUri(String namespace, String repo){
         String format = "%s/%s/%s.git";
         return String.format(format, getUrl(), namespace, repo);
@@ -37,14 +37,26 @@ public class JiraProperties {
     private String closeTransition;
     private boolean updateComment = false;
     private String updateCommentValue = "Issue still remains";
+    private boolean updateFingerprint = false;
     private List<String> openStatus;
     private List<String> closedStatus;
     private List<Field> fields;
     private String parentUrl = "";
     private String grandParentUrl = "";
     private boolean child = false;
+    private Integer parentCacheTtl = 0;
+    private Integer parentCacheSize = 100;
     private Integer httpTimeout = 20000;
     private Integer maxJqlResults = 50;
+    private Integer maxConcurrentPageRequests = 4;
+    private Integer maxConcurrentRequests = 1;
+    private boolean bulkCreate = false;
+    private boolean issueIndex = false;
+    private Integer issueIndexFullSyncInterval = 60;
+    private Integer issueIndexExpiry = 1440;
+    private Integer issueIndexSize = 100;
+    private Integer metadataCacheTtl = 60;
+    private Integer metadataCacheSize = 1000;
     private List<String> statusCategoryOpenName = Arrays.asList("To Do", "In Progress");
     private List<String> statusCategoryClosedName = Arrays.asList("Done");
 
@@ -240,6 +252,18 @@ public class JiraProperties {
         this.updateCommentValue = updateCommentValue;
     }
 
+    /**
+     * Store a fingerprint of the updated content as a label of the issue and skip updates of open issues
+     * whose content would not change.
+     */
+    public boolean isUpdateFingerprint() {
+        return updateFingerprint;
+    }
+
+    public void setUpdateFingerprint(boolean updateFingerprint) {
+        this.updateFingerprint = updateFingerprint;
+    }
+
     public String getIssuePostfix() {
         return issuePostfix;
     }
@@ -291,6 +315,30 @@ public class JiraProperties {
         this.child = child;
     }
 
+    /**
+     * Minutes for which the issues of the parent and grandparent projects are reused by the following scans
+     * of the same repo (see {@link #isChild()}). 0 retrieves them for every scan.
+     */
+    public Integer getParentCacheTtl() {
+        return parentCacheTtl;
+    }
+
+    public void setParentCacheTtl(Integer parentCacheTtl) {
+        this.parentCacheTtl = parentCacheTtl;
+    }
+
+    /**
+     * Maximum number of queries (parent or grandparent project and tracking labels) whose issues are kept
+     * for {@link #getParentCacheTtl()}.
+     */
+    public Integer getParentCacheSize() {
+        return parentCacheSize;
+    }
+
+    public void setParentCacheSize(Integer parentCacheSize) {
+        this.parentCacheSize = parentCacheSize;
+    }
+
     public String getGrandParentUrl() {
         return grandParentUrl;
     }
@@ -315,6 +363,109 @@ public class JiraProperties {
         this.maxJqlResults = maxJqlResults;
     }
 
+    /**
+     * Maximum number of JQL result pages (of {@link #getMaxJqlResults()} issues each) that are requested
+     * at the same time when retrieving the existing issues.
+     */
+    public Integer getMaxConcurrentPageRequests() {
+        return maxConcurrentPageRequests;
+    }
+
+    public void setMaxConcurrentPageRequests(Integer maxConcurrentPageRequests) {
+        this.maxConcurrentPageRequests = maxConcurrentPageRequests;
+    }
+
+    /**
+     * Maximum number of findings that are published (created/updated/closed) in Jira at the same time,
+     * shared by all running publishes. 1 publishes the findings one at a time.
+     */
+    public Integer getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    /**
+     * Create the issues of new findings with the Jira bulk create endpoint (up to 50 issues per request)
+     * instead of one request per issue.
+     */
+    public boolean isBulkCreate() {
+        return bulkCreate;
+    }
+
+    public void setBulkCreate(boolean bulkCreate) {
+        this.bulkCreate = bulkCreate;
+    }
+
+    /**
+     * Keep the tracked issues in a local index and only retrieve the issues updated since the previous
+     * retrieval, instead of retrieving all the tracked issues for every scan.
+     */
+    public boolean isIssueIndex() {
+        return issueIndex;
+    }
+
+    public void setIssueIndex(boolean issueIndex) {
+        this.issueIndex = issueIndex;
+    }
+
+    /**
+     * Minutes after which the issue index retrieves all the tracked issues again.
+     */
+    public Integer getIssueIndexFullSyncInterval() {
+        return issueIndexFullSyncInterval;
+    }
+
+    public void setIssueIndexFullSyncInterval(Integer issueIndexFullSyncInterval) {
+        this.issueIndexFullSyncInterval = issueIndexFullSyncInterval;
+    }
+
+    /**
+     * Minutes after which the issues of a project and branch that wasn't published to are dropped from the index.
+     */
+    public Integer getIssueIndexExpiry() {
+        return issueIndexExpiry;
+    }
+
+    public void setIssueIndexExpiry(Integer issueIndexExpiry) {
+        this.issueIndexExpiry = issueIndexExpiry;
+    }
+
+    /**
+     * Maximum number of queries (project, issue type and tracking labels) whose issues are kept in the index.
+     */
+    public Integer getIssueIndexSize() {
+        return issueIndexSize;
+    }
+
+    public void setIssueIndexSize(Integer issueIndexSize) {
+        this.issueIndexSize = issueIndexSize;
+    }
+
+    /**
+     * Minutes for which Jira metadata (custom field ids, issue types, security levels and transitions) is cached.
+     */
+    public Integer getMetadataCacheTtl() {
+        return metadataCacheTtl;
+    }
+
+    public void setMetadataCacheTtl(Integer metadataCacheTtl) {
+        this.metadataCacheTtl = metadataCacheTtl;
+    }
+
+    /**
+     * Maximum number of cached entries for each kind of Jira metadata.
+     */
+    public Integer getMetadataCacheSize() {
+        return metadataCacheSize;
+    }
+
+    public void setMetadataCacheSize(Integer metadataCacheSize) {
+        this.metadataCacheSize = metadataCacheSize;
+    }
+
     public List<String> getStatusCategoryOpenName() {
         return statusCategoryOpenName;
     }
@@ -14,6 +14,15 @@ public class RallyProperties extends RepoProperties {
     private String ownerLabelPrefix = "owner";
     private String repoLabelPrefix = "repo";
     private String branchLabelPrefix = "branch";
+    private Integer maxConcurrentPageRequests = 4;
+
+    public Integer getMaxConcurrentPageRequests() {
+        return maxConcurrentPageRequests;
+    }
+
+    public void setMaxConcurrentPageRequests(Integer maxConcurrentPageRequests) {
+        this.maxConcurrentPageRequests = maxConcurrentPageRequests;
+    }
 
     public String getRallyWorkspaceId() {
         return rallyWorkspaceId;
@@ -17,6 +17,33 @@ public class ServiceNowProperties extends RepoProperties {
     private String username;
     private String password;
     private String apiUrl;
+    private Integer pageSize = 1000;
+    private Integer maxConcurrentPageRequests = 4;
+    private Integer batchSize = 25;
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public Integer getMaxConcurrentPageRequests() {
+        return maxConcurrentPageRequests;
+    }
+
+    public void setMaxConcurrentPageRequests(Integer maxConcurrentPageRequests) {
+        this.maxConcurrentPageRequests = maxConcurrentPageRequests;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
 
     public String getServiceNowWorkspaceId() {
         return serviceNowWorkspaceId;
@@ -75,11 +75,60 @@ public class FlowController {
         // Validate shared API token from header
         validateToken(token);
 
+        ScanRequest scanRequest = getLatestResultsRequest(uid, project, team, application,
+                new ControllerRequest(severity, cwe, category, status), assignee, override, bug);
+
+        // Fetch the Checkmarx Scan Results based on given ScanRequest.
+        // The cxProject parameter is null because the required project metadata
+        // is already contained in the scanRequest parameter.
+        ScanResults scanResults = resultsService.cxGetResults(scanRequest, null).join();
+        log.debug("ScanResults {}", scanResults);
+
+        return scanResults;
+    }
+
+    /**
+     * Same parameters as /scanresults, but nothing is published: returns the issues that publishing
+     * the latest results would create, update and close in the bug tracker (Jira or custom bean only).
+     */
+    @GetMapping(value = "/scanresults/plan", produces = "application/json")
+    public ResponseEntity<PublishPlan> latestScanResultsPlan(
+            // Mandatory parameters
+            @RequestParam(value = "project") String project,
+            @RequestHeader(value = TOKEN_HEADER) String token,
+            // Optional parameters
+            @RequestParam(value = "team", required = false) String team,
+            @RequestParam(value = "application", required = false) String application,
+            @RequestParam(value = "severity", required = false) List<String> severity,
+            @RequestParam(value = "cwe", required = false) List<String> cwe,
+            @RequestParam(value = "category", required = false) List<String> category,
+            @RequestParam(value = "status", required = false) List<String> status,
+            @RequestParam(value = "assignee", required = false) String assignee,
+            @RequestParam(value = "override", required = false) String override,
+            @RequestParam(value = "bug", required = false) String bug) {
+
+        String uid = helperService.getShortUid();
+        MDC.put("cx", uid);
+        validateToken(token);
+
+        ScanRequest scanRequest = getLatestResultsRequest(uid, project, team, application,
+                new ControllerRequest(severity, cwe, category, status), assignee, override, bug);
+        scanRequest.setDryRun(true);
+
+        ScanResults scanResults = resultsService.cxGetResults(scanRequest, null).join();
+        if (scanResults == null || scanResults.getAdditionalDetails() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        PublishPlan plan = (PublishPlan) scanResults.getAdditionalDetails().get(ResultsService.PUBLISH_PLAN_KEY);
+        return plan == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(plan);
+    }
+
+    private ScanRequest getLatestResultsRequest(String uid, String project, String team, String application,
+                                                ControllerRequest request, String assignee, String override, String bug) {
         // Create bug tracker
         BugTracker bugTracker = getBugTracker(assignee, bug);
 
         // Create filters if available
-        ControllerRequest request = new ControllerRequest(severity, cwe, category, status);
         FilterConfiguration filter = filterFactory.getFilter(request, properties);
 
         // Create the scan request
@@ -98,14 +147,7 @@ public class FlowController {
             FlowOverride ovr = ScanUtils.getMachinaOverride(override);
             scanRequest = configOverrider.overrideScanRequestProperties(ovr, scanRequest);
         }
-
-        // Fetch the Checkmarx Scan Results based on given ScanRequest.
-        // The cxProject parameter is null because the required project metadata
-        // is already contained in the scanRequest parameter.
-        ScanResults scanResults = resultsService.cxGetResults(scanRequest, null).join();
-        log.debug("ScanResults {}", scanResults);
-
-        return scanResults;
+        return scanRequest;
     }
 
     @PostMapping("/scan")
@@ -0,0 +1,35 @@
+package com.checkmarx.flow.controller;
+
+import com.checkmarx.flow.service.JiraMetadataCache;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the Jira metadata cache: GET returns the number of cached entries, DELETE invalidates
+ * the whole cache (e.g. after custom fields or workflows were changed in Jira).
+ * Exposed over HTTP as /actuator/jiracache when included in management.endpoints.web.exposure.include.
+ */
+@Component
+@Endpoint(id = "jiracache")
+public class JiraMetadataCacheEndpoint {
+
+    private final JiraMetadataCache metadataCache;
+
+    public JiraMetadataCacheEndpoint(JiraMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+
+    @ReadOperation
+    public Map<String, Long> sizes() {
+        return metadataCache.getSizes();
+    }
+
+    @DeleteOperation
+    public void invalidate() {
+        metadataCache.invalidateAll();
+    }
+}
@@ -9,6 +9,7 @@ import com.checkmarx.flow.exception.MachinaException;
 import com.checkmarx.flow.utils.ScanUtils;
 import com.checkmarx.sdk.config.Constants;
 import com.checkmarx.sdk.dto.ScanResults;
+import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -22,6 +23,9 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service("Azure")
 public class ADOIssueTracker implements IssueTracker {
@@ -35,6 +39,9 @@ public class ADOIssueTracker implements IssueTracker {
     private static final String CREATE_WORK_ITEM_URL_TEMPLATE =
             "%s/{namespace}/{project}/_apis/wit/workitems/${work-item-type}?api-version={version}";
     private static final String SEARCH_WORK_ITEM_URL_TEMPLATE ="%s/{namespace}/{project}/_apis/wit/wiql?api-version={version}";
+    private static final String BATCH_WORK_ITEM_URL_TEMPLATE ="%s/{namespace}/{project}/_apis/wit/workitemsbatch?api-version={version}";
+    //Maximum number of work items returned by a workitemsbatch call
+    private static final int WORK_ITEMS_PER_BATCH = 200;
     private static final String WIQ_BASE = "Select [System.Id], [System.Title], " +
             "[System.State], [System.State], [System.WorkItemType] From WorkItems Where ";
     private static final String WIQ_REPO_BRANCH = WIQ_BASE +
@@ -49,12 +56,15 @@ public class ADOIssueTracker implements IssueTracker {
     private final RestTemplate restTemplate;
     private final ADOProperties properties;
     private final FlowProperties flowProperties;
+    private final Executor executor;
 
 
-    public ADOIssueTracker(@Qualifier("flowRestTemplate") RestTemplate restTemplate, ADOProperties properties, FlowProperties flowProperties) {
+    public ADOIssueTracker(@Qualifier("flowRestTemplate") RestTemplate restTemplate, ADOProperties properties, FlowProperties flowProperties,
+                           @Qualifier("issueTracker") Executor executor) {
         this.restTemplate = restTemplate;
         this.properties = properties;
         this.flowProperties = flowProperties;
+        this.executor = executor;
     }
 
     @Override
@@ -104,8 +114,24 @@ public class ADOIssueTracker implements IssueTracker {
      */
     @Override
     public List<Issue> getIssues(ScanRequest request) throws MachinaException {
+        return streamIssues(request, true).collect(Collectors.toList());
+    }
+
+    /**
+     * Work items matching the WIQL query, without their body: it isn't needed to update or close them.
+     */
+    @Override
+    public Stream<Issue> streamIssues(ScanRequest request) throws MachinaException {
+        return streamIssues(request, false);
+    }
+
+    /**
+     * The WIQL query only returns work item ids. The work items are then fetched with workitemsbatch calls of up to
+     * {@link #WORK_ITEMS_PER_BATCH} ids, limited to the fields that are mapped, with up to
+     * azure.max-concurrent-batch-requests calls at a time.
+     */
+    private Stream<Issue> streamIssues(ScanRequest request, boolean withBody) throws MachinaException {
         log.info("Executing getIssues Azure API call");
-        List<Issue> issues = new ArrayList<>();
 
         String projectName = calculateProjectName(request);
 
@@ -154,20 +180,47 @@ public class ADOIssueTracker implements IssueTracker {
 
         ResponseEntity<String> response = restTemplate.exchange(endpoint,
                 HttpMethod.POST, httpEntity, String.class);
-        if(response.getBody() == null) return issues;
+        if(response.getBody() == null) return Stream.empty();
 
         JSONObject json = new JSONObject(response.getBody());
         JSONArray workItems = json.getJSONArray("workItems");
 
-        if(workItems.length() < 1) return issues;
+        if(workItems.length() < 1) return Stream.empty();
 
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < workItems.length(); i++) {
+            ids.add(workItems.getJSONObject(i).getInt("id"));
+        }
+        List<String> fields = new ArrayList<>(Arrays.asList(TITLE_FIELD, STATE_FIELD, TAGS_FIELD));
+        if (withBody) {
+            fields.add(FIELD_PREFIX.concat(issueBody));
+        }
+        URI batchEndpoint = getBatchEndpoint(projectName, request);
+        List<List<Integer>> batches = Lists.partition(ids, WORK_ITEMS_PER_BATCH);
+        log.debug("Fetching {} work items in {} batches", ids.size(), batches.size());
+        PrefetchedPages<List<Issue>> pages = new PrefetchedPages<>(0, batches.size() - 1,
+                properties.getMaxConcurrentBatchRequests(), executor,
+                batch -> getIssues(batchEndpoint, batches.get(batch), fields, withBody ? issueBody : null));
+        return PagedIssues.stream(pages.next(), page -> pages.next(), page -> page);
+    }
+
+    /**
+     * Fetches the work items with a single workitemsbatch call.
+     */
+    private List<Issue> getIssues(URI batchEndpoint, List<Integer> ids, List<String> fields, String issueBody) {
+        JSONObject batchJson = new JSONObject();
+        batchJson.put("ids", new JSONArray(ids));
+        batchJson.put("fields", new JSONArray(fields));
+        HttpEntity<String> httpEntity = new HttpEntity<>(batchJson.toString(), createAuthHeaders());
+        ResponseEntity<String> response = restTemplate.exchange(batchEndpoint, HttpMethod.POST, httpEntity, String.class);
+        List<Issue> issues = new ArrayList<>();
+        if (response.getBody() == null) {
+            return issues;
+        }
+        JSONArray workItems = new JSONObject(response.getBody()).getJSONArray("value");
         for (int i = 0; i < workItems.length(); i++) {
             JSONObject workItem = workItems.getJSONObject(i);
-            String workItemUri = workItem.getString("url");
-            Issue wi = getIssue(workItemUri, issueBody);
-            if(wi != null){
-                issues.add(wi);
-            }
+            issues.add(mapToIssue(workItem, workItem.getString("url"), issueBody));
         }
         return issues;
     }
@@ -180,15 +233,23 @@ public class ADOIssueTracker implements IssueTracker {
         if( r == null){
             return null;
         }
+        return mapToIssue(new JSONObject(r), uri, issueBody);
+    }
 
-        JSONObject o = new JSONObject(r);
+    /**
+     * @param issueBody name of the body field, or null if the body wasn't fetched
+     */
+    private static Issue mapToIssue(JSONObject o, String uri, String issueBody) {
         JSONObject fields = o.getJSONObject("fields");
 
         Issue i = new Issue();
-        i.setBody(fields.getString(FIELD_PREFIX.concat(issueBody)));
+        if (issueBody != null) {
+            i.setBody(fields.optString(FIELD_PREFIX.concat(issueBody)));
+        }
         i.setTitle(fields.getString(TITLE_FIELD));
         i.setId(String.valueOf(o.getInt("id")));
-        String[] tags = fields.getString(TAGS_FIELD).split(";");
+        //Azure omits the tags field of work items without tags
+        String[] tags = fields.optString(TAGS_FIELD).split(";");
         i.setLabels(Arrays.asList(tags));
         i.setUrl(uri);
         i.setState(fields.getString(STATE_FIELD));
@@ -321,6 +382,17 @@ public class ADOIssueTracker implements IssueTracker {
         return result;
     }
 
+    private URI getBatchEndpoint(String adoProject, ScanRequest request) {
+        String urlTemplate = String.format(BATCH_WORK_ITEM_URL_TEMPLATE, properties.getUrl());
+        String adoNamespace = determineNamespace(request);
+
+        URI result = new DefaultUriBuilderFactory()
+                .expand(urlTemplate, adoNamespace, adoProject, properties.getApiVersion());
+
+        log.debug("Endpoint URI: {}", result);
+        return result;
+    }
+
     private String determineNamespace(ScanRequest request) {
         log.debug("Determining ADO namespace.");
         boolean canUseProperties = !StringUtils.isEmpty(properties.getNamespace()) &&
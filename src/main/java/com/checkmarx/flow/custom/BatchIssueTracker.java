@@ -0,0 +1,78 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.flow.dto.Issue;
+import com.checkmarx.flow.dto.IssueOutcome;
+import com.checkmarx.flow.dto.IssueUpdate;
+import com.checkmarx.flow.dto.ScanRequest;
+import com.checkmarx.flow.exception.MachinaException;
+import com.checkmarx.sdk.dto.ScanResults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link IssueTracker} that can create, update and close several issues at once.
+ * The default implementations handle the issues one by one using the single-item methods; trackers whose
+ * backend supports batch operations override them.
+ * <p>
+ * Every batch method returns one {@link IssueOutcome} per item, in the order of the items. A failure of a
+ * single item is reported in its outcome and doesn't prevent the other items from being processed.
+ */
+public interface BatchIssueTracker extends IssueTracker {
+
+    int DEFAULT_BATCH_SIZE = 50;
+
+    /**
+     * @return maximum number of items passed to a single call of the batch methods.
+     */
+    default int getBatchSize() {
+        return DEFAULT_BATCH_SIZE;
+    }
+
+    default List<IssueOutcome> createIssues(List<ScanResults.XIssue> resultIssues, ScanRequest request) throws MachinaException {
+        List<IssueOutcome> outcomes = new ArrayList<>();
+        for (ScanResults.XIssue resultIssue : resultIssues) {
+            try {
+                outcomes.add(IssueOutcome.success(createIssue(resultIssue, request)));
+            } catch (MachinaException | RuntimeException e) {
+                outcomes.add(IssueOutcome.failure(e));
+            }
+        }
+        return outcomes;
+    }
+
+    default List<IssueOutcome> updateIssues(List<IssueUpdate> updates, ScanRequest request) throws MachinaException {
+        List<IssueOutcome> outcomes = new ArrayList<>();
+        for (IssueUpdate update : updates) {
+            try {
+                outcomes.add(IssueOutcome.success(updateIssue(update.getIssue(), update.getResultIssue(), request)));
+            } catch (MachinaException | RuntimeException e) {
+                outcomes.add(IssueOutcome.failure(e));
+            }
+        }
+        return outcomes;
+    }
+
+    default List<IssueOutcome> closeIssues(List<Issue> issues, ScanRequest request) throws MachinaException {
+        List<IssueOutcome> outcomes = new ArrayList<>();
+        for (Issue issue : issues) {
+            try {
+                closeIssue(issue, request);
+                outcomes.add(IssueOutcome.success(issue));
+            } catch (MachinaException | RuntimeException e) {
+                outcomes.add(IssueOutcome.failure(e));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * @return the tracker itself if it supports batches, otherwise an adapter with single-item batches.
+     */
+    static BatchIssueTracker of(IssueTracker tracker) {
+        if (tracker instanceof BatchIssueTracker) {
+            return (BatchIssueTracker) tracker;
+        }
+        return new BatchIssueTrackerAdapter(tracker);
+    }
+}
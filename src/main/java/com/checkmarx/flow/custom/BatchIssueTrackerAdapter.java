@@ -0,0 +1,92 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.flow.dto.Issue;
+import com.checkmarx.flow.dto.ScanRequest;
+import com.checkmarx.flow.exception.MachinaException;
+import com.checkmarx.sdk.dto.ScanResults;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exposes an {@link IssueTracker} without batch support as a {@link BatchIssueTracker}.
+ * Batches hold a single item, so that each item can be submitted as a separate task.
+ */
+class BatchIssueTrackerAdapter implements BatchIssueTracker {
+
+    private final IssueTracker tracker;
+
+    BatchIssueTrackerAdapter(IssueTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return 1;
+    }
+
+    @Override
+    public void init(ScanRequest request, ScanResults results) throws MachinaException {
+        tracker.init(request, results);
+    }
+
+    @Override
+    public void initPlanning(ScanRequest request, ScanResults results) throws MachinaException {
+        tracker.initPlanning(request, results);
+    }
+
+    @Override
+    public void complete(ScanRequest request, ScanResults results) throws MachinaException {
+        tracker.complete(request, results);
+    }
+
+    @Override
+    public String getFalsePositiveLabel() throws MachinaException {
+        return tracker.getFalsePositiveLabel();
+    }
+
+    @Override
+    public List<Issue> getIssues(ScanRequest request) throws MachinaException {
+        return tracker.getIssues(request);
+    }
+
+    @Override
+    public Stream<Issue> streamIssues(ScanRequest request) throws MachinaException {
+        return tracker.streamIssues(request);
+    }
+
+    @Override
+    public Issue createIssue(ScanResults.XIssue resultIssue, ScanRequest request) throws MachinaException {
+        return tracker.createIssue(resultIssue, request);
+    }
+
+    @Override
+    public void closeIssue(Issue issue, ScanRequest request) throws MachinaException {
+        tracker.closeIssue(issue, request);
+    }
+
+    @Override
+    public Issue updateIssue(Issue issue, ScanResults.XIssue resultIssue, ScanRequest request) throws MachinaException {
+        return tracker.updateIssue(issue, resultIssue, request);
+    }
+
+    @Override
+    public String getIssueKey(Issue issue, ScanRequest request) {
+        return tracker.getIssueKey(issue, request);
+    }
+
+    @Override
+    public String getXIssueKey(ScanResults.XIssue issue, ScanRequest request) {
+        return tracker.getXIssueKey(issue, request);
+    }
+
+    @Override
+    public boolean isIssueClosed(Issue issue, ScanRequest request) {
+        return tracker.isIssueClosed(issue, request);
+    }
+
+    @Override
+    public boolean isIssueOpened(Issue issue, ScanRequest request) {
+        return tracker.isIssueOpened(issue, request);
+    }
+}
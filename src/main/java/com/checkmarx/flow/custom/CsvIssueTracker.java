@@ -12,38 +12,60 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 @Service("Csv")
 @RequiredArgsConstructor
 public class CsvIssueTracker extends ImmutableIssueTracker {
     private static final Logger log = org.slf4j.LoggerFactory.getLogger(CsvIssueTracker.class);
+    private static final Pattern LINE_BREAK = Pattern.compile("\\R");
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
     private final CsvProperties properties;
     private final FlowProperties flowProperties;
     private final FilenameFormatter filenameFormatter;
+    //Open files by name, from init to complete
+    private final Map<String, CsvFile> files = new ConcurrentHashMap<>();
 
     @Override
     public void init(ScanRequest request, ScanResults results) throws MachinaException {
         String filename = filenameFormatter.formatPath(request, properties.getFileNameFormat(), properties.getDataFolder());
+        if (properties.isGzip() && !filename.endsWith(GZIP_EXTENSION)) {
+            filename = filename.concat(GZIP_EXTENSION);
+        }
         request.setFilename(filename);
         log.info("Creating file {}", filename);
         log.info("Deleting if already exists");
+        closeFile(files.remove(filename), filename);
         try {
-            Files.deleteIfExists(Paths.get(filename));
-            Files.createFile(Paths.get(filename));
+            Path path = Paths.get(filename);
+            Files.deleteIfExists(path);
+            OutputStream out = Files.newOutputStream(Files.createFile(path));
+            if (properties.isGzip()) {
+                out = new GZIPOutputStream(out, BUFFER_SIZE);
+            }
+            CsvFile file = new CsvFile(new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()), BUFFER_SIZE),
+                    getColumns(request));
+            files.put(filename, file);
             if(properties.isIncludeHeader()) {
                 log.debug("Writing headers for CSV");
-                String headers = getHeaders(request, properties.getFields()).concat(ScanUtils.CRLF);
-                Files.write(Paths.get(request.getFilename()), headers.getBytes());
+                file.writeHeader(getFields());
             }
         } catch (IOException e){
             log.error("Issue deleting existing file or writing initial {}", filename, e);
@@ -53,6 +75,18 @@ public class CsvIssueTracker extends ImmutableIssueTracker {
     @Override
     public void complete(ScanRequest request, ScanResults results) throws MachinaException {
         log.info("Finalizing CSV output");
+        closeFile(files.remove(request.getFilename()), request.getFilename());
+    }
+
+    private static void closeFile(CsvFile file, String filename) {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.close();
+        } catch (IOException e) {
+            log.error("Error closing file {}", filename, e);
+        }
     }
 
     @Override
@@ -67,172 +101,248 @@ public class CsvIssueTracker extends ImmutableIssueTracker {
 
     @Override
     public Issue createIssue(ScanResults.XIssue issue, ScanRequest request) throws MachinaException {
-        List<String> values = new ArrayList<>();
-        for(CsvProperties.Field f: properties.getFields()) {
-            String value;
-            switch (f.getName()) {
-                case "summary":
-                    value = issue.getVulnerability().concat(" @ ").concat(issue.getFilename());
-                    log.debug("summary: {}", value);
-                    break;
-                case "application":
-                    log.debug("application: {}", request.getApplication());
-                    value = request.getApplication();
-                    break;
-                case "static":
-                    log.debug("static: {}", f.getDefaultValue());
-                    value = f.getDefaultValue();
-                    break;
-                case "project":
-                    log.debug("project: {}", request.getProject());
-                    value = request.getProject();
-                    break;
-                case "namespace":
-                    log.debug("namespace: {}", request.getNamespace());
-                    value = request.getNamespace();
-                    break;
-                case "repo-name":
-                    log.debug("repo-name: {}", request.getRepoName());
-                    value = request.getRepoName();
-                    break;
-                case "repo-url":
-                    log.debug("repo-url: {}", request.getRepoUrl());
-                    value = request.getRepoUrl();
-                    break;
-                case "branch":
-                    log.debug("branch: {}", request.getBranch());
-                    value = request.getBranch();
-                    break;
-                case "severity":
-                    log.debug("severity: {}", issue.getSeverity());
-                    value = issue.getSeverity();
-                    break;
-                case "category":
-                    log.debug("category: {}", issue.getVulnerability());
-                    value = issue.getVulnerability();
-                    break;
-                case "cwe":
-                    log.debug("cwe: {}", issue.getCwe());
-                    value = issue.getCwe();
-                    break;
-                case "cve":
-                    log.debug("cve: {}", issue.getCve());
-                    value = issue.getCve();
-                    break;
-                case "recommendation":
-                    value = String.format(flowProperties.getMitreUrl(), issue.getCwe());
-                    break;
-                case "loc":
-                    value = "";
-                    List<String> lines = new ArrayList<>();
-                    if (issue.getDetails() != null && !issue.getDetails().isEmpty()) {
-                        for (Map.Entry<Integer, ScanResults.IssueDetails> entry : issue.getDetails().entrySet()) {
-                            if (entry.getKey() != null && entry.getValue() != null && !entry.getValue().isFalsePositive() && !ScanUtils.empty(entry.getValue().getCodeSnippet())) {
-                                lines.add(entry.getKey().toString());
-                            }
-                        }
-                        Collections.sort(lines);
-                        value = StringUtils.join(lines, ",");
-                        log.debug("loc: {}", value);
-                    }
-                    break;
-                case "site":
-                    log.debug("site: {}", request.getSite());
-                    value = request.getSite();
-                    break;
-                case "issue-link":
-                    log.debug("issue-link: {}", issue.getLink());
-                    value = issue.getLink();
-                    break;
-                case "filename":
-                    log.debug("filename: {}", issue.getFilename());
-                    value = issue.getFilename();
-                    break;
-                case "language":
-                    log.debug("language: {}", issue.getLanguage());
-                    value = issue.getLanguage();
-                    break;
-                case "similarity-id":
-                    log.debug("similarity-id: {}", issue.getSimilarityId());
-                    value = issue.getSimilarityId();
-                    break;
-                case "description":
-                    log.debug("description: {}", issue.getDescription());
-                    value = issue.getDescription();
-                    break;
-                default:
-                    if (request.getCxFields() != null) {
-                        log.debug("Checking for Checkmarx custom field {}", f.getName());
-                        value = request.getCxFields().get(f.getName());
-                        if(ScanUtils.empty(value)){
-                            log.warn("field value for {} not found", f.getName());
-                        }
-                        log.debug("Cx Field value: {}",value);
-                    }
-                    else {
+        CsvFile file = files.get(request.getFilename());
+        if (file == null) {
+            log.error("File {} is not open, skipping issue {}", request.getFilename(), issue.getFilename());
+            return null;
+        }
+        try {
+            file.writeRow(issue);
+        }catch (IOException e){
+            log.error("Error writing to file {}", request.getFilename(), e);
+        }
+        return null;
+    }
+
+    private List<CsvProperties.Field> getFields() {
+        return properties.getFields() == null ? Collections.emptyList() : properties.getFields();
+    }
+
+    /**
+     * Resolves the configured fields for the request: values that only depend on the request (application, branch,
+     * static values, Checkmarx custom fields...) are rendered once, the others get an accessor on the finding.
+     */
+    private List<Column> getColumns(ScanRequest request) {
+        List<Column> columns = new ArrayList<>();
+        for(CsvProperties.Field f: getFields()) {
+            String prefix = ScanUtils.empty(f.getPrefix()) ? "" : subValues(request, f.getPrefix());
+            String postfix = ScanUtils.empty(f.getPostfix()) ? "" : subValues(request, f.getPostfix());
+            Function<ScanResults.XIssue, String> accessor = getAccessor(f.getName());
+            if (accessor != null) {
+                columns.add(new Column(accessor, f.getDefaultValue(), prefix, postfix));
+            } else {
+                String value = getRequestValue(f, request);
+                columns.add(new Column(null, null, null, null, renderCell(value, f.getDefaultValue(), prefix, postfix)));
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * @return accessor for fields that depend on the finding, otherwise null
+     */
+    private Function<ScanResults.XIssue, String> getAccessor(String name) {
+        switch (name) {
+            case "summary":
+                return issue -> issue.getVulnerability().concat(" @ ").concat(issue.getFilename());
+            case "severity":
+                return ScanResults.XIssue::getSeverity;
+            case "category":
+                return ScanResults.XIssue::getVulnerability;
+            case "cwe":
+                return ScanResults.XIssue::getCwe;
+            case "cve":
+                return ScanResults.XIssue::getCve;
+            case "recommendation":
+                String mitreUrl = flowProperties.getMitreUrl();
+                return issue -> String.format(mitreUrl, issue.getCwe());
+            case "loc":
+                return CsvIssueTracker::getLinesOfCode;
+            case "issue-link":
+                return ScanResults.XIssue::getLink;
+            case "filename":
+                return ScanResults.XIssue::getFilename;
+            case "language":
+                return ScanResults.XIssue::getLanguage;
+            case "similarity-id":
+                return ScanResults.XIssue::getSimilarityId;
+            case "description":
+                return ScanResults.XIssue::getDescription;
+            default:
+                return null;
+        }
+    }
+
+    private static String getRequestValue(CsvProperties.Field f, ScanRequest request) {
+        String value;
+        switch (f.getName()) {
+            case "application":
+                value = request.getApplication();
+                break;
+            case "static":
+                value = f.getDefaultValue();
+                break;
+            case "project":
+                value = request.getProject();
+                break;
+            case "namespace":
+                value = request.getNamespace();
+                break;
+            case "repo-name":
+                value = request.getRepoName();
+                break;
+            case "repo-url":
+                value = request.getRepoUrl();
+                break;
+            case "branch":
+                value = request.getBranch();
+                break;
+            case "site":
+                value = request.getSite();
+                break;
+            default:
+                if (request.getCxFields() != null) {
+                    log.debug("Checking for Checkmarx custom field {}", f.getName());
+                    value = request.getCxFields().get(f.getName());
+                    if(ScanUtils.empty(value)){
                         log.warn("field value for {} not found", f.getName());
-                        value = "";
                     }
-            }
-            if (ScanUtils.empty(value)) {
-                log.debug("Value is empty, defaulting to configured default (if applicable)");
-                if (!ScanUtils.empty(f.getDefaultValue())) {
-                    value = f.getDefaultValue();
-                    log.debug("Default value is {}", value);
+                    log.debug("Cx Field value: {}",value);
                 }
+                else {
+                    log.warn("field value for {} not found", f.getName());
+                    value = "";
+                }
+        }
+        log.debug("{}: {}", f.getName(), value);
+        return value;
+    }
+
+    private static String getLinesOfCode(ScanResults.XIssue issue) {
+        if (issue.getDetails() == null || issue.getDetails().isEmpty()) {
+            return "";
+        }
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<Integer, ScanResults.IssueDetails> entry : issue.getDetails().entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null && !entry.getValue().isFalsePositive() && !ScanUtils.empty(entry.getValue().getCodeSnippet())) {
+                lines.add(entry.getKey().toString());
             }
-            if(value == null){
-                value = "";
-            }
-            if(!ScanUtils.empty(f.getPrefix())){
-                value = subValues(request, f.getPrefix()).concat(value);
-            }
-            if(!ScanUtils.empty(f.getPostfix())){
-                value = value.concat(subValues(request, f.getPostfix()));
-            }
-            value = escapeSpecialCharacters(value);
-            if(value.contains(",")){
-                value = "\"".concat(value).concat("\"");
-            }
-            values.add(value);
         }
-        String csv = convertToCSV(values).concat(ScanUtils.CRLF);
+        Collections.sort(lines);
+        return StringUtils.join(lines, ",");
+    }
 
-        try {
-            Files.write(Paths.get(request.getFilename()), csv.getBytes(), StandardOpenOption.APPEND);
-        }catch (IOException e){
-            log.error("Error writing to file {}, value {}", request.getFilename(), csv, e);
+    /**
+     * Renders a cell: configured default for an empty value, prefix and postfix, then escaping.
+     */
+    private static String renderCell(String value, String defaultValue, String prefix, String postfix) {
+        if (ScanUtils.empty(value) && !ScanUtils.empty(defaultValue)) {
+            value = defaultValue;
         }
-        return null;
+        if(value == null){
+            value = "";
+        }
+        if (!prefix.isEmpty() || !postfix.isEmpty()) {
+            value = prefix.concat(value).concat(postfix);
+        }
+        value = escapeSpecialCharacters(value);
+        if(value.indexOf(',') >= 0){
+            value = "\"".concat(value).concat("\"");
+        }
+        return escapeSpecialCharacters(value);
     }
 
-    private String escapeSpecialCharacters(String data) {
-        String escapedData = data.replaceAll("\\R", " ");
-        if (data.contains(",") || data.contains("\"") || data.contains("'")) {
-            data = data.replace("\"", "\"\"");
-            escapedData = "\"" + data + "\"";
+    private static String escapeSpecialCharacters(String data) {
+        boolean quote = false;
+        boolean lineBreak = false;
+        for (int i = 0; i < data.length(); i++) {
+            char c = data.charAt(i);
+            if (c == ',' || c == '"' || c == '\'') {
+                quote = true;
+                break;
+            }
+            if ((c >= '\n' && c <= '\r') || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                lineBreak = true;
+            }
         }
-        return escapedData;
+        if (quote) {
+            return "\"" + data.replace("\"", "\"\"") + "\"";
+        }
+        return lineBreak ? LINE_BREAK.matcher(data).replaceAll(" ") : data;
     }
 
-    private String convertToCSV(List<String> data) {
-        String[] dataArr = data.toArray(new String[0]);
+    private static class Column {
+        private final Function<ScanResults.XIssue, String> accessor;
+        private final String defaultValue;
+        private final String prefix;
+        private final String postfix;
+        //Rendered cell of columns that don't depend on the finding
+        private final String cell;
+
+        Column(Function<ScanResults.XIssue, String> accessor, String defaultValue, String prefix, String postfix) {
+            this(accessor, defaultValue, prefix, postfix, null);
+        }
 
-        return Stream.of(dataArr)
-                .map(this::escapeSpecialCharacters)
-                .collect(Collectors.joining(","));
+        Column(Function<ScanResults.XIssue, String> accessor, String defaultValue, String prefix, String postfix, String cell) {
+            this.accessor = accessor;
+            this.defaultValue = defaultValue;
+            this.prefix = prefix;
+            this.postfix = postfix;
+            this.cell = cell;
+        }
+
+        String render(ScanResults.XIssue issue) {
+            return cell != null ? cell : renderCell(accessor.apply(issue), defaultValue, prefix, postfix);
+        }
     }
 
-    private String getHeaders(ScanRequest request, List<CsvProperties.Field> fields){
-        List<String> values = new ArrayList<>();
-        for(CsvProperties.Field f: fields){
-            String header = escapeSpecialCharacters(f.getHeader());
-            values.add(header);
+    /**
+     * CSV file being written, kept open from init to complete. Rows are built in a single reusable buffer.
+     */
+    private static class CsvFile {
+        private final Writer writer;
+        private final List<Column> columns;
+        private final StringBuilder row = new StringBuilder();
+
+        CsvFile(Writer writer, List<Column> columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+
+        synchronized void writeHeader(List<CsvProperties.Field> fields) throws IOException {
+            row.setLength(0);
+            for (CsvProperties.Field f : fields) {
+                appendCell(escapeSpecialCharacters(escapeSpecialCharacters(f.getHeader())));
+            }
+            writeRow();
+        }
+
+        synchronized void writeRow(ScanResults.XIssue issue) throws IOException {
+            row.setLength(0);
+            for (Column column : columns) {
+                appendCell(column.render(issue));
+            }
+            writeRow();
+        }
+
+        private void appendCell(String cell) {
+            if (row.length() > 0) {
+                row.append(',');
+            }
+            row.append(cell);
+        }
+
+        private void writeRow() throws IOException {
+            row.append(ScanUtils.CRLF);
+            writer.append(row);
+        }
+
+        synchronized void close() throws IOException {
+            writer.close();
         }
-        return convertToCSV(values);
     }
 
-    private String subValues(ScanRequest request, String value){
+    private static String subValues(ScanRequest request, String value){
 
         if(!ScanUtils.empty(request.getTeam())){
             String team = request.getTeam();
@@ -14,6 +14,7 @@ public class CsvProperties {
     private String fileNameFormat = "[APP]-[BRANCH]-[TIME].csv";
     private String dataFolder = "/tmp";
     private boolean includeHeader = false;
+    private boolean gzip = false;
 
     private List<Field> fields;
 
@@ -41,6 +42,17 @@ public class CsvProperties {
         this.includeHeader = includeHeader;
     }
 
+    /**
+     * Compress the file on the fly; .gz is appended to the file name.
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
     public List<Field> getFields() {
         return fields;
     }
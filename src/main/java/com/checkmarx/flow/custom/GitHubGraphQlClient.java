@@ -0,0 +1,222 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.flow.config.GitHubProperties;
+import com.checkmarx.flow.utils.ScanUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates and closes GitHub issues with GraphQL mutations, many per request: every mutation of a request gets an
+ * alias (i0, i1, ...) that is used to map the results back to the items.
+ */
+class GitHubGraphQlClient {
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubGraphQlClient.class);
+    private static final String ISSUE_FIELDS = "id databaseId number title body state labels(first: 100) { nodes { name } }";
+    private static final String ALIAS_PREFIX = "i";
+
+    private final RestTemplate restTemplate;
+    private final GitHubProperties properties;
+    private final Cache<String, Repository> repositories = CacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .maximumSize(1000)
+            .build();
+
+    GitHubGraphQlClient(RestTemplate restTemplate, GitHubProperties properties) {
+        this.restTemplate = restTemplate;
+        this.properties = properties;
+    }
+
+    boolean isEnabled() {
+        return !ScanUtils.empty(properties.getGraphqlUrl());
+    }
+
+    /**
+     * @param issues title and body of each issue to create
+     * @return one result per issue, in the same order; the result of a created issue holds the {@link #ISSUE_FIELDS}
+     * @throws GraphQlException if GitHub rejected the request as a whole, or if the issue label doesn't exist in the
+     * repository yet: REST creation adds the missing label, GraphQL would create the issues without it
+     */
+    List<Result> createIssues(String namespace, String repoName, List<Map.Entry<String, String>> issues) {
+        Repository repository = getRepository(namespace, repoName);
+        StringBuilder declarations = new StringBuilder("$repositoryId: ID!");
+        StringBuilder mutations = new StringBuilder();
+        JSONObject variables = new JSONObject();
+        variables.put("repositoryId", repository.id);
+        String labels = "";
+        if (repository.labelId != null) {
+            declarations.append(", $labelIds: [ID!]");
+            variables.put("labelIds", new JSONArray().put(repository.labelId));
+            labels = ", labelIds: $labelIds";
+        }
+        for (int i = 0; i < issues.size(); i++) {
+            declarations.append(String.format(", $title%d: String!, $body%d: String", i, i));
+            variables.put("title" + i, issues.get(i).getKey());
+            variables.put("body" + i, issues.get(i).getValue());
+            mutations.append(String.format("%s%d: createIssue(input: {repositoryId: $repositoryId, title: $title%d, body: $body%d%s}) { issue { %s } } ",
+                    ALIAS_PREFIX, i, i, i, labels, ISSUE_FIELDS));
+        }
+        return getResults(execute(String.format("mutation(%s) { %s}", declarations, mutations), variables), issues.size());
+    }
+
+    /**
+     * @param issueIds global (node) ids of the issues to close
+     * @return one result per issue, in the same order
+     * @throws GraphQlException if GitHub rejected the request as a whole
+     */
+    List<Result> closeIssues(List<String> issueIds) {
+        StringBuilder declarations = new StringBuilder();
+        StringBuilder mutations = new StringBuilder();
+        JSONObject variables = new JSONObject();
+        for (int i = 0; i < issueIds.size(); i++) {
+            if (i > 0) {
+                declarations.append(", ");
+            }
+            declarations.append(String.format("$issue%d: ID!", i));
+            variables.put("issue" + i, issueIds.get(i));
+            mutations.append(String.format("%s%d: closeIssue(input: {issueId: $issue%d}) { issue { %s } } ",
+                    ALIAS_PREFIX, i, i, ISSUE_FIELDS));
+        }
+        return getResults(execute(String.format("mutation(%s) { %s}", declarations, mutations), variables), issueIds.size());
+    }
+
+    private Repository getRepository(String namespace, String repoName) {
+        String label = properties.getIssueLabel();
+        String key = String.join("/", namespace, repoName, ScanUtils.empty(label) ? "" : label);
+        Repository repository = repositories.getIfPresent(key);
+        if (repository != null) {
+            return repository;
+        }
+        JSONObject variables = new JSONObject();
+        variables.put("owner", namespace);
+        variables.put("name", repoName);
+        String query;
+        if (ScanUtils.empty(label)) {
+            query = "query($owner: String!, $name: String!) { repository(owner: $owner, name: $name) { id } }";
+        } else {
+            variables.put("label", label);
+            query = "query($owner: String!, $name: String!, $label: String!) { repository(owner: $owner, name: $name) { id label(name: $label) { id } } }";
+        }
+        JSONObject data = execute(query, variables);
+        JSONObject repositoryJson = data.optJSONObject("repository");
+        if (repositoryJson == null) {
+            throw new GraphQlException("Repository not found: " + namespace + "/" + repoName);
+        }
+        JSONObject labelJson = repositoryJson.optJSONObject("label");
+        if (!ScanUtils.empty(label) && labelJson == null) {
+            //Not cached: the label exists once the REST fallback has created the first issue
+            throw new GraphQlException("Label " + label + " doesn't exist in " + namespace + "/" + repoName);
+        }
+        repository = new Repository(repositoryJson.getString("id"), labelJson == null ? null : labelJson.getString("id"));
+        repositories.put(key, repository);
+        return repository;
+    }
+
+    /**
+     * @return data of the response. Errors of single mutations are left for {@link #getResults}.
+     */
+    private JSONObject execute(String query, JSONObject variables) {
+        JSONObject requestBody = new JSONObject();
+        requestBody.put("query", query);
+        requestBody.put("variables", variables);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, "token ".concat(properties.getToken()));
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(properties.getGraphqlUrl(), HttpMethod.POST,
+                    new HttpEntity<>(requestBody.toString(), headers), String.class);
+            JSONObject responseBody = new JSONObject(response.getBody());
+            JSONObject data = responseBody.optJSONObject("data");
+            if (data == null) {
+                throw new GraphQlException("GraphQL request failed: " + responseBody.optJSONArray("errors"));
+            }
+            data.put("errors", responseBody.optJSONArray("errors") == null ? new JSONArray() : responseBody.getJSONArray("errors"));
+            return data;
+        } catch (RestClientException | JSONException e) {
+            throw new GraphQlException("GraphQL request failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Result> getResults(JSONObject data, int count) {
+        Map<String, String> errors = new HashMap<>();
+        JSONArray errorsJson = data.getJSONArray("errors");
+        for (int i = 0; i < errorsJson.length(); i++) {
+            JSONObject error = errorsJson.getJSONObject(i);
+            JSONArray path = error.optJSONArray("path");
+            if (path != null && path.length() > 0) {
+                errors.put(path.getString(0), error.optString("message"));
+            }
+        }
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String alias = ALIAS_PREFIX + i;
+            JSONObject payload = data.optJSONObject(alias);
+            JSONObject issue = payload == null ? null : payload.optJSONObject("issue");
+            if (issue != null) {
+                results.add(new Result(issue, null));
+            } else {
+                results.add(new Result(null, errors.getOrDefault(alias, "No result returned")));
+            }
+        }
+        return results;
+    }
+
+    static class Result {
+        private final JSONObject issue;
+        private final String error;
+
+        private Result(JSONObject issue, String error) {
+            this.issue = issue;
+            this.error = error;
+        }
+
+        /**
+         * @return the issue, or null if the mutation failed
+         */
+        JSONObject getIssue() {
+            return issue;
+        }
+
+        String getError() {
+            return error;
+        }
+    }
+
+    static class GraphQlException extends RuntimeException {
+        GraphQlException(String message) {
+            super(message);
+        }
+
+        GraphQlException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static class Repository {
+        private final String id;
+        private final String labelId;
+
+        Repository(String id, String labelId) {
+            this.id = id;
+            this.labelId = labelId;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.checkmarx.flow.custom;
 import com.checkmarx.flow.config.FlowProperties;
 import com.checkmarx.flow.config.GitHubProperties;
 import com.checkmarx.flow.dto.Issue;
+import com.checkmarx.flow.dto.IssueOutcome;
 import com.checkmarx.flow.dto.ScanRequest;
 import com.checkmarx.flow.dto.github.IssueStatus;
 import com.checkmarx.flow.dto.github.LabelsItem;
@@ -10,6 +11,9 @@ import com.checkmarx.flow.exception.MachinaException;
 import com.checkmarx.flow.exception.MachinaRuntimeException;
 import com.checkmarx.flow.utils.ScanUtils;
 import com.checkmarx.sdk.dto.ScanResults;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.slf4j.Logger;
@@ -19,28 +23,49 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service("GitHub")
-public class GitHubIssueTracker implements IssueTracker {
+public class GitHubIssueTracker implements BatchIssueTracker {
 
     private static final String TRANSITION_CLOSE = "closed";
     private static final String TRANSITION_OPEN = "open";
     private static final String ISSUES_PER_PAGE = "100";
+    private static final String NODE_ID = "nodeId";
+    /**
+     * Each mutation costs 5 points of GitHub's secondary rate limit (2000 points per minute), so a full batch
+     * stays well within the budget of a single request.
+     */
+    private static final int MAX_GRAPHQL_BATCH_SIZE = DEFAULT_BATCH_SIZE;
+    private static final int MAX_GRAPHQL_BODY_LENGTH = 500000;
     private static final Logger log = LoggerFactory.getLogger(GitHubIssueTracker.class);
 
     private final RestTemplate restTemplate;
     private final GitHubProperties properties;
     private final FlowProperties flowProperties;
-
+    private final Cache<String, IssuePage> issuePages;
+    private final GitHubGraphQlClient graphQlClient;
 
     public GitHubIssueTracker(@Qualifier("flowRestTemplate") RestTemplate restTemplate, GitHubProperties properties, FlowProperties flowProperties) {
         this.restTemplate = restTemplate;
         this.properties = properties;
         this.flowProperties = flowProperties;
+        this.issuePages = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(0, properties.getIssuePageCacheSize()))
+                .build();
+        this.graphQlClient = new GitHubGraphQlClient(restTemplate, properties);
     }
 
     @Override
@@ -64,48 +89,119 @@ public class GitHubIssueTracker implements IssueTracker {
      */
     @Override
     public List<Issue> getIssues(ScanRequest request) {
-        String apiUrl = String.format("%s/%s/%s/issues?state=all&per_page=%s",
-                properties.getApiUrl(),
-                request.getNamespace(),
-                request.getRepoName(),
-                ISSUES_PER_PAGE);
+        return streamIssues(request, true).collect(Collectors.toList());
+    }
 
-        log.info("Executing getIssues GitHub API call: {}", apiUrl);
-        List<Issue> issues = new ArrayList<>();
-        HttpEntity<?> httpEntity = new HttpEntity<>(createAuthHeaders());
+    /**
+     * Issues of the repository, fetched page by page while the stream is consumed. The issues don't have a body:
+     * it is fetched by {@link #updateIssue} when needed.
+     */
+    @Override
+    public Stream<Issue> streamIssues(ScanRequest request) {
+        return streamIssues(request, false);
+    }
 
-        ResponseEntity<com.checkmarx.flow.dto.github.Issue[]> response = restTemplate.exchange(apiUrl,
-                HttpMethod.GET, httpEntity, com.checkmarx.flow.dto.github.Issue[].class);
+    private Stream<Issue> streamIssues(ScanRequest request, boolean withBody) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(properties.getApiUrl())
+                .pathSegment(request.getNamespace(), request.getRepoName(), "issues")
+                .queryParam("state", "all")
+                .queryParam("per_page", ISSUES_PER_PAGE);
+        String apiUrl;
+        if (!ScanUtils.empty(properties.getIssueLabel())) {
+            //As a uri variable, the label is encoded completely: reserved characters don't change the filter
+            apiUrl = uriBuilder.queryParam("labels", "{labels}").encode()
+                    .buildAndExpand(properties.getIssueLabel()).toUriString();
+        } else {
+            apiUrl = uriBuilder.encode().toUriString();
+        }
 
-        if (response.getBody() == null) {
+        log.info("Executing getIssues GitHub API call: {}", apiUrl);
+        IssuePage firstPage = getIssuesPage(apiUrl, withBody);
+
+        if (firstPage.issues.isEmpty()) {
             log.info("No issues found.");
-            return new ArrayList<>();
         }
 
-        for (com.checkmarx.flow.dto.github.Issue issue : response.getBody()) {
-            Issue i = mapToIssue(issue);
-            if (i != null && i.getTitle().startsWith(request.getProduct().getProduct())) {
-                issues.add(i);
-            }
+        return PagedIssues.stream(firstPage,
+                page -> {
+                    if (page.next == null) {
+                        return null;
+                    }
+                    log.debug("Getting issue from {}", page.next);
+                    return getIssuesPage(page.next, withBody);
+                },
+                page -> getProductIssues(page.issues, request));
+    }
+
+    /**
+     * Requests a page of the issue list. Pages are cached with their ETag, without the issue bodies: when GitHub
+     * answers 304 Not Modified to a page requested without bodies, the cached issues are returned. Pages with bodies
+     * are always requested in full.
+     */
+    private IssuePage getIssuesPage(String pageUrl, boolean withBody) {
+        HttpHeaders headers = createAuthHeaders();
+        IssuePage cachedPage = withBody ? null : issuePages.getIfPresent(pageUrl);
+        if (cachedPage != null) {
+            headers.setIfNoneMatch(cachedPage.eTag);
         }
+        ResponseEntity<com.checkmarx.flow.dto.github.Issue[]> response = restTemplate.exchange(URI.create(pageUrl),
+                HttpMethod.GET, new HttpEntity<>(headers), com.checkmarx.flow.dto.github.Issue[].class);
 
-        String next = getNextURIFromHeaders(response.getHeaders(), "link", "next");
-        while (next != null) {
-            log.debug("Getting issue from {}", next);
-            ResponseEntity<com.checkmarx.flow.dto.github.Issue[]> responsePage = restTemplate.exchange(next, HttpMethod.GET,
-                    httpEntity, com.checkmarx.flow.dto.github.Issue[].class);
-
-            if (responsePage.getBody() != null) {
-                for (com.checkmarx.flow.dto.github.Issue issue : responsePage.getBody()) {
-                    Issue i = mapToIssue(issue);
-                    if (i != null && i.getTitle().startsWith(request.getProduct().getProduct())) {
-                        issues.add(i);
+        if (cachedPage != null && response.getStatusCode().equals(HttpStatus.NOT_MODIFIED)) {
+            log.debug("Issue page {} not modified", pageUrl);
+            return cachedPage;
+        }
+        List<Issue> issues = new ArrayList<>();
+        if (response.getBody() != null) {
+            for (com.checkmarx.flow.dto.github.Issue issue : response.getBody()) {
+                Issue i = mapToIssue(issue);
+                if (i != null) {
+                    if (!withBody) {
+                        i.setBody(null);
                     }
+                    issues.add(i);
                 }
             }
-            next = getNextURIFromHeaders(responsePage.getHeaders(), "link", "next");
         }
-        return issues;
+        String next = getNextURIFromHeaders(response.getHeaders(), "link", "next");
+        String eTag = response.getHeaders().getETag();
+        if (eTag != null) {
+            issuePages.put(pageUrl, withBody ? new IssuePage(eTag, next, withoutBodies(issues)) : new IssuePage(eTag, next, issues));
+        }
+        return new IssuePage(eTag, next, issues);
+    }
+
+    private static List<Issue> withoutBodies(List<Issue> issues) {
+        return issues.stream()
+                .map(issue -> new Issue(issue.getId(), issue.getUrl(), issue.getTitle(), null, issue.getState(),
+                        issue.getLabels(), issue.getMetadata()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return copies of the issues of the product, so that callers can't change the cached issues.
+     */
+    private List<Issue> getProductIssues(List<Issue> page, ScanRequest request) {
+        return page.stream()
+                .filter(issue -> issue.getTitle().startsWith(request.getProduct().getProduct()))
+                .map(issue -> new Issue(issue.getId(), issue.getUrl(), issue.getTitle(), issue.getBody(), issue.getState(),
+                        new ArrayList<>(issue.getLabels()), issue.getMetadata()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Issues of a page of the issue list, with the ETag of the page and the url of the next page.
+     */
+    private static class IssuePage {
+        private final String eTag;
+        private final String next;
+        private final List<Issue> issues;
+
+        IssuePage(String eTag, String next, List<Issue> issues) {
+            this.eTag = eTag;
+            this.next = next;
+            this.issues = issues;
+        }
     }
 
 
@@ -124,6 +220,30 @@ public class GitHubIssueTracker implements IssueTracker {
         i.setLabels(labels);
         i.setUrl(issue.getUrl());
         i.setState(issue.getState());
+        if (issue.getNodeId() != null) {
+            i.setMetadata(Collections.singletonMap(NODE_ID, issue.getNodeId()));
+        }
+        return i;
+    }
+
+    /**
+     * Maps an issue returned by a GraphQL mutation; the url is the REST url used by the other operations.
+     */
+    private Issue mapToIssue(JSONObject issue, ScanRequest request) {
+        Issue i = new Issue();
+        i.setBody(issue.optString("body"));
+        i.setTitle(issue.optString("title"));
+        i.setId(String.valueOf(issue.getLong("databaseId")));
+        List<String> labels = new ArrayList<>();
+        JSONArray labelNodes = issue.getJSONObject("labels").getJSONArray("nodes");
+        for (int l = 0; l < labelNodes.length(); l++) {
+            labels.add(labelNodes.getJSONObject(l).getString("name"));
+        }
+        i.setLabels(labels);
+        i.setUrl(String.format("%s/%s/%s/issues/%d", properties.getApiUrl(), request.getNamespace(),
+                request.getRepoName(), issue.getInt("number")));
+        i.setState(issue.getString("state").toLowerCase(Locale.ROOT));
+        i.setMetadata(Collections.singletonMap(NODE_ID, issue.getString("id")));
         return i;
     }
 
@@ -179,8 +299,108 @@ public class GitHubIssueTracker implements IssueTracker {
         restTemplate.exchange(issue.getUrl(), HttpMethod.POST, httpEntity, Issue.class);
     }
 
+    /**
+     * Batches go through GraphQL when github.graphql-url is set, otherwise every issue has its own REST call.
+     */
+    @Override
+    public int getBatchSize() {
+        if (!graphQlClient.isEnabled()) {
+            return 1;
+        }
+        return Math.max(1, Math.min(properties.getGraphqlBatchSize(), MAX_GRAPHQL_BATCH_SIZE));
+    }
+
+    /**
+     * Creates the issues with GraphQL mutations, split so that a request doesn't exceed
+     * {@link #MAX_GRAPHQL_BODY_LENGTH} characters of issue bodies. Falls back to REST if a GraphQL request fails as a whole.
+     */
+    @Override
+    public List<IssueOutcome> createIssues(List<ScanResults.XIssue> resultIssues, ScanRequest request) throws MachinaException {
+        if (!graphQlClient.isEnabled() || resultIssues.size() < 2) {
+            return BatchIssueTracker.super.createIssues(resultIssues, request);
+        }
+        List<IssueOutcome> outcomes = new ArrayList<>();
+        List<ScanResults.XIssue> batch = new ArrayList<>();
+        List<Map.Entry<String, String>> contents = new ArrayList<>();
+        int bodyLength = 0;
+        for (ScanResults.XIssue resultIssue : resultIssues) {
+            JSONObject json = getJSONCreateIssue(resultIssue, request);
+            String body = json.optString("body");
+            if (!batch.isEmpty() && bodyLength + body.length() > MAX_GRAPHQL_BODY_LENGTH) {
+                outcomes.addAll(createIssueBatch(batch, contents, request));
+                batch = new ArrayList<>();
+                contents = new ArrayList<>();
+                bodyLength = 0;
+            }
+            batch.add(resultIssue);
+            contents.add(new AbstractMap.SimpleImmutableEntry<>(json.optString("title"), body));
+            bodyLength += body.length();
+        }
+        outcomes.addAll(createIssueBatch(batch, contents, request));
+        return outcomes;
+    }
+
+    private List<IssueOutcome> createIssueBatch(List<ScanResults.XIssue> resultIssues, List<Map.Entry<String, String>> contents,
+                                                ScanRequest request) throws MachinaException {
+        log.info("Executing createIssue GitHub GraphQL call for {} issues", resultIssues.size());
+        List<GitHubGraphQlClient.Result> results;
+        try {
+            results = graphQlClient.createIssues(request.getNamespace(), request.getRepoName(), contents);
+        } catch (GitHubGraphQlClient.GraphQlException e) {
+            log.warn("Creating issues with GraphQL failed, falling back to REST: {}", e.getMessage());
+            return BatchIssueTracker.super.createIssues(resultIssues, request);
+        }
+        List<IssueOutcome> outcomes = new ArrayList<>();
+        for (GitHubGraphQlClient.Result result : results) {
+            if (result.getIssue() != null) {
+                outcomes.add(IssueOutcome.success(mapToIssue(result.getIssue(), request)));
+            } else {
+                outcomes.add(IssueOutcome.failure(new MachinaException("Error occurred while creating GitHub Issue: " + result.getError())));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Closes the issues that have a GraphQL node id with a single request, the others with REST calls.
+     */
+    @Override
+    public List<IssueOutcome> closeIssues(List<Issue> issues, ScanRequest request) throws MachinaException {
+        List<Issue> graphQlIssues = issues.stream()
+                .filter(issue -> issue.getMetadata() != null && issue.getMetadata().get(NODE_ID) != null)
+                .collect(Collectors.toList());
+        if (!graphQlClient.isEnabled() || graphQlIssues.size() < 2) {
+            return BatchIssueTracker.super.closeIssues(issues, request);
+        }
+        Map<Issue, IssueOutcome> outcomes = new IdentityHashMap<>();
+        log.info("Executing closeIssue GitHub GraphQL call for {} issues", graphQlIssues.size());
+        try {
+            List<GitHubGraphQlClient.Result> results = graphQlClient.closeIssues(graphQlIssues.stream()
+                    .map(issue -> issue.getMetadata().get(NODE_ID))
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < graphQlIssues.size(); i++) {
+                GitHubGraphQlClient.Result result = results.get(i);
+                outcomes.put(graphQlIssues.get(i), result.getIssue() != null
+                        ? IssueOutcome.success(graphQlIssues.get(i))
+                        : IssueOutcome.failure(new MachinaException("Error occurred while closing GitHub Issue: " + result.getError())));
+            }
+        } catch (GitHubGraphQlClient.GraphQlException e) {
+            log.warn("Closing issues with GraphQL failed, falling back to REST: {}", e.getMessage());
+        }
+        List<Issue> restIssues = issues.stream().filter(issue -> !outcomes.containsKey(issue)).collect(Collectors.toList());
+        List<IssueOutcome> restOutcomes = BatchIssueTracker.super.closeIssues(restIssues, request);
+        for (int i = 0; i < restIssues.size(); i++) {
+            outcomes.put(restIssues.get(i), restOutcomes.get(i));
+        }
+        return issues.stream().map(outcomes::get).collect(Collectors.toList());
+    }
+
     @Override
     public Issue updateIssue(Issue issue, ScanResults.XIssue resultIssue, ScanRequest request) throws MachinaException {
+        if (issue.getBody() == null) {
+            //Issues from streamIssues don't have a body, which is needed for the update comment
+            issue = this.getIssue(issue.getUrl());
+        }
         log.info("Executing updateIssue GitHub API call");
         HttpEntity httpEntity = new HttpEntity<>(getJSONUpdateIssue(resultIssue, request).toString(), createAuthHeaders());
         ResponseEntity<com.checkmarx.flow.dto.github.Issue> response;
@@ -258,6 +478,9 @@ public class GitHubIssueTracker implements IssueTracker {
         try {
             requestBody.put("title", title);
             requestBody.put("body", body);
+            if (!ScanUtils.empty(properties.getIssueLabel())) {
+                requestBody.put("labels", new JSONArray().put(properties.getIssueLabel()));
+            }
         } catch (JSONException e) {
             log.error("Error creating JSON Create Issue Object - JSON Object will be empty", e);
         }
@@ -25,6 +25,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service("GitLab")
 public class GitLabIssueTracker implements IssueTracker {
@@ -34,7 +38,9 @@ public class GitLabIssueTracker implements IssueTracker {
     private static final String OPEN_STATE = "opened";
     private static final String ISSUES_PER_PAGE = "100";
     private static final String PROJECT = "/projects?search={repo}";
-    private static final String ISSUES_PATH = "/projects/{id}/issues?per_page=".concat(ISSUES_PER_PAGE);
+    private static final String ISSUES_PATH = "/projects/{id}/issues?per_page=".concat(ISSUES_PER_PAGE).concat("&page={page}");
+    private static final String LABELS_FILTER = "&labels={labels}";
+    private static final String TOTAL_PAGES_HEADER = "X-Total-Pages";
     private static final String NEW_ISSUE_PATH = "/projects/{id}/issues";
     private static final String ISSUE_PATH = "/projects/{id}/issues/{iid}";
     private static final String COMMENT_PATH = "/projects/{id}/issues/{iid}/notes";
@@ -43,11 +49,14 @@ public class GitLabIssueTracker implements IssueTracker {
     private final RestTemplate restTemplate;
     private final GitLabProperties properties;
     private final FlowProperties flowProperties;
+    private final Executor executor;
 
-    public GitLabIssueTracker(@Qualifier("flowRestTemplate") RestTemplate restTemplate, GitLabProperties properties, FlowProperties flowProperties) {
+    public GitLabIssueTracker(@Qualifier("flowRestTemplate") RestTemplate restTemplate, GitLabProperties properties, FlowProperties flowProperties,
+                              @Qualifier("issueTracker") Executor executor) {
         this.restTemplate = restTemplate;
         this.properties = properties;
         this.flowProperties = flowProperties;
+        this.executor = executor;
     }
 
     @Override
@@ -126,34 +135,72 @@ public class GitLabIssueTracker implements IssueTracker {
      */
     @Override
     public List<Issue> getIssues(ScanRequest request) {
+        return streamIssues(request).collect(Collectors.toList());
+    }
+
+    /**
+     * Issues of the project, filtered by gitlab.issue-label when set. GitLab returns the page count in the
+     * X-Total-Pages header, so the remaining pages are fetched up to gitlab.max-concurrent-page-requests at a time.
+     * GitLab omits the header for very large result sets; the pages are then followed one by one through the Link header.
+     */
+    @Override
+    public Stream<Issue> streamIssues(ScanRequest request) {
         log.info("Executing getIssues GitLab API call");
-        List<Issue> issues = new ArrayList<>();
+        ResponseEntity<com.checkmarx.flow.dto.gitlab.Issue[]> firstPage = getIssuesPage(request, 1);
+        Integer totalPages = getTotalPages(firstPage.getHeaders());
+
+        UnaryOperator<ResponseEntity<com.checkmarx.flow.dto.gitlab.Issue[]>> nextPage;
+        if (totalPages != null) {
+            log.debug("Fetching {} pages of issues", totalPages);
+            PrefetchedPages<ResponseEntity<com.checkmarx.flow.dto.gitlab.Issue[]>> pages = new PrefetchedPages<>(2, totalPages,
+                    properties.getMaxConcurrentPageRequests(), executor, page -> getIssuesPage(request, page));
+            nextPage = page -> pages.next();
+        } else {
+            HttpEntity<Void> httpEntity = new HttpEntity<>(createAuthHeaders());
+            nextPage = page -> {
+                String next = getNextURIFromHeaders(page.getHeaders(), "link", "next");
+                return next == null ? null
+                        : restTemplate.exchange(next, HttpMethod.GET, httpEntity, com.checkmarx.flow.dto.gitlab.Issue[].class);
+            };
+        }
+        return PagedIssues.stream(firstPage, nextPage, page -> getProductIssues(page.getBody(), request));
+    }
+
+    private ResponseEntity<com.checkmarx.flow.dto.gitlab.Issue[]> getIssuesPage(ScanRequest request, int page) {
         HttpEntity<Void> httpEntity = new HttpEntity<>(createAuthHeaders());
         String endpoint = properties.getApiUrl().concat(ISSUES_PATH);
-        ResponseEntity<com.checkmarx.flow.dto.gitlab.Issue[]> response = restTemplate.exchange(endpoint,
-                HttpMethod.GET, httpEntity, com.checkmarx.flow.dto.gitlab.Issue[].class, request.getRepoProjectId());
-        if(response.getBody() == null) {
+        if (ScanUtils.empty(properties.getIssueLabel())) {
+            return restTemplate.exchange(endpoint, HttpMethod.GET, httpEntity,
+                    com.checkmarx.flow.dto.gitlab.Issue[].class, request.getRepoProjectId(), page);
+        }
+        return restTemplate.exchange(endpoint.concat(LABELS_FILTER), HttpMethod.GET, httpEntity,
+                com.checkmarx.flow.dto.gitlab.Issue[].class, request.getRepoProjectId(), page, properties.getIssueLabel());
+    }
+
+    private static Integer getTotalPages(HttpHeaders headers) {
+        String totalPages = headers.getFirst(TOTAL_PAGES_HEADER);
+        if (ScanUtils.empty(totalPages)) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(totalPages.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Invalid {} header: {}", TOTAL_PAGES_HEADER, totalPages);
+            return null;
+        }
+    }
+
+    private List<Issue> getProductIssues(com.checkmarx.flow.dto.gitlab.Issue[] page, ScanRequest request) {
+        List<Issue> issues = new ArrayList<>();
+        if (page == null) {
             return issues;
         }
-        for(com.checkmarx.flow.dto.gitlab.Issue issue: response.getBody()){
+        for (com.checkmarx.flow.dto.gitlab.Issue issue : page) {
             Issue i = mapToIssue(issue);
-            if (i != null) {
+            if (i != null && i.getTitle().startsWith(request.getProduct().getProduct())) {
                 issues.add(i);
             }
         }
-        String next = getNextURIFromHeaders(response.getHeaders(), "link", "next");
-        while (next != null) {
-            ResponseEntity<com.checkmarx.flow.dto.gitlab.Issue[]> responsePage = restTemplate.exchange(next, HttpMethod.GET, httpEntity, com.checkmarx.flow.dto.gitlab.Issue[].class);
-            if(responsePage.getBody() != null) {
-                for(com.checkmarx.flow.dto.gitlab.Issue issue: responsePage.getBody()){
-                    Issue i = mapToIssue(issue);
-                    if(i != null && i.getTitle().startsWith(request.getProduct().getProduct())){
-                        issues.add(i);
-                    }
-                }
-            }
-            next = getNextURIFromHeaders(responsePage.getHeaders(), "link", "next");
-        }
         return issues;
     }
 
@@ -319,6 +366,9 @@ public class GitLabIssueTracker implements IssueTracker {
         try {
             requestBody.put("title", title);
             requestBody.put("description", body);
+            if (!ScanUtils.empty(properties.getIssueLabel())) {
+                requestBody.put("labels", properties.getIssueLabel());
+            }
         } catch (JSONException e) {
             log.error("Error creating JSON Create Issue Object - JSON Object will be empty", e);
         }
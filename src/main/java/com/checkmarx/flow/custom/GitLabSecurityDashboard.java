@@ -9,26 +9,37 @@ import com.checkmarx.flow.service.FilenameFormatter;
 import com.checkmarx.sdk.dto.ScanResults;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service("GitLabDashboard")
 @RequiredArgsConstructor
 @Slf4j
 public class GitLabSecurityDashboard extends ImmutableIssueTracker {
     private static final String ISSUE_FORMAT = "%s @ %s : %d";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    //Vulnerabilities are written one by one into a buffered stream: flushing after each of them would defeat the buffer
+    private static final ObjectWriter WRITER = MAPPER.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
 
     private final GitLabProperties properties;
     private final FlowProperties flowProperties;
@@ -51,49 +62,64 @@ public class GitLabSecurityDashboard extends ImmutableIssueTracker {
         }
     }
 
+    /**
+     * Writes the report while iterating the findings, so that memory use doesn't depend on their number: one
+     * {@link Vulnerability} and {@link Location} are reused for all the lines, the scanner and identifiers for all the
+     * lines of a finding. The output is the same as serializing a {@link SecurityDashboard}.
+     */
     @Override
     public void complete(ScanRequest request, ScanResults results) throws MachinaException {
         log.info("Finalizing Dashboard output");
-        List<Vulnerability> vulns = new ArrayList<>();
-        Scanner scanner = Scanner.builder().build();
-        results.getXIssues().forEach( issue ->
-            issue.getDetails().forEach( (k,v) -> {
-                Vulnerability vuln = Vulnerability.builder()
-                        .category("sast")
-                        .id(issue.getVulnerability().concat(":").concat(issue.getFilename()).concat(":").concat(k.toString()))
-                        .cve(issue.getVulnerability().concat(":").concat(issue.getFilename()).concat(":").concat(k.toString()))
-                        .name(issue.getVulnerability())
-                        .message(String.format(ISSUE_FORMAT, issue.getVulnerability(), issue.getFilename(), k))
-                        .description(issue.getVulnerability())
-                        .severity(issue.getSeverity())
-                        .confidence(issue.getSeverity())
-                        .solution(issue.getLink())
-                        .scanner(scanner)
-                        .identifiers(getIdentifiers(issue))
-                        .location(
-                                Location.builder()
-                                        .file(issue.getFilename())
-                                        .startLine(k)
-                                        .endLine(k)
-                                        .build()
-                        )
-                        .build();
-                vulns.add(vuln);
-            })
-        );
-        SecurityDashboard report  = SecurityDashboard.builder()
-                .vulnerabilities(vulns)
-                .build();
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            mapper.writeValue(new File(request.getFilename()), report);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(request.getFilename())), BUFFER_SIZE);
+             JsonGenerator generator = MAPPER.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField("version", SecurityDashboard.builder().build().getVersion());
+            generator.writeArrayFieldStart("vulnerabilities");
+            writeVulnerabilities(results, generator);
+            generator.writeEndArray();
+            generator.writeEndObject();
         } catch (IOException e) {
             log.error("Issue occurred while writing file {}", request.getFilename(), e);
             throw new MachinaException();
         }
     }
 
+    private void writeVulnerabilities(ScanResults results, JsonGenerator generator) throws IOException {
+        if (results.getXIssues() == null) {
+            return;
+        }
+        Scanner scanner = Scanner.builder().build();
+        Location location = Location.builder().build();
+        Vulnerability vuln = Vulnerability.builder()
+                .category("sast")
+                .scanner(scanner)
+                .location(location)
+                .build();
+        for (ScanResults.XIssue issue : results.getXIssues()) {
+            if (issue.getDetails() == null) {
+                continue;
+            }
+            String idPrefix = issue.getVulnerability().concat(":").concat(issue.getFilename()).concat(":");
+            vuln.setName(issue.getVulnerability());
+            vuln.setDescription(issue.getVulnerability());
+            vuln.setSeverity(issue.getSeverity());
+            vuln.setConfidence(issue.getSeverity());
+            vuln.setSolution(issue.getLink());
+            vuln.setIdentifiers(getIdentifiers(issue));
+            location.setFile(issue.getFilename());
+            for (Map.Entry<Integer, ScanResults.IssueDetails> detail : issue.getDetails().entrySet()) {
+                Integer line = detail.getKey();
+                String id = idPrefix.concat(line.toString());
+                vuln.setId(id);
+                vuln.setCve(id);
+                vuln.setMessage(String.format(ISSUE_FORMAT, issue.getVulnerability(), issue.getFilename(), line));
+                location.setStartLine(line);
+                location.setEndLine(line);
+                WRITER.writeValue(generator, vuln);
+            }
+        }
+    }
+
     private List<Identifier> getIdentifiers(ScanResults.XIssue issue){
         List<Identifier> identifiers = new ArrayList<>();
         identifiers.add(
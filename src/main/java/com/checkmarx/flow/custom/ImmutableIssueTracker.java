@@ -6,6 +6,11 @@ import com.checkmarx.flow.exception.MachinaException;
 import com.checkmarx.sdk.dto.ScanResults;
 
 public abstract class ImmutableIssueTracker implements IssueTracker {
+    @Override
+    public void initPlanning(ScanRequest request, ScanResults results) {
+        //Nothing to read: every finding is a new issue
+    }
+
     @Override
     public void closeIssue(Issue issue, ScanRequest request) throws MachinaException {
 
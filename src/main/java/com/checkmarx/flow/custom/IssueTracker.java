@@ -5,12 +5,33 @@ import com.checkmarx.flow.exception.MachinaException;
 import com.checkmarx.sdk.dto.ScanResults;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface IssueTracker {
     void init(ScanRequest request, ScanResults results) throws MachinaException;
+
+    /**
+     * Prepares the tracker for computing a publish plan (dry run), which must not write anything to the tracker.
+     * Trackers whose {@link #init} creates files or remote objects override this.
+     */
+    default void initPlanning(ScanRequest request, ScanResults results) throws MachinaException {
+        init(request, results);
+    }
+
     void complete(ScanRequest request, ScanResults results) throws MachinaException;
     String getFalsePositiveLabel() throws MachinaException;
     List<Issue> getIssues(ScanRequest request) throws MachinaException;
+
+    /**
+     * Same issues as {@link #getIssues}, but trackers with large issue sets may fetch them page by page while the
+     * stream is consumed, and return lightweight issues: only the fields used to match them with the results
+     * (id, url, title, state and labels) have to be set. Such trackers load anything else they need, like the
+     * body, in {@link #updateIssue}.
+     */
+    default Stream<Issue> streamIssues(ScanRequest request) throws MachinaException {
+        List<Issue> issues = getIssues(request);
+        return issues == null ? Stream.empty() : issues.stream();
+    }
     Issue createIssue(ScanResults.XIssue resultIssue, ScanRequest request) throws MachinaException;
     void closeIssue(Issue issue, ScanRequest request) throws MachinaException;
     Issue updateIssue(Issue issue, ScanResults.XIssue resultIssue, ScanRequest request) throws MachinaException;
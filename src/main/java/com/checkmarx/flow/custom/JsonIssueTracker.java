@@ -5,14 +5,12 @@ import com.checkmarx.flow.dto.ScanRequest;
 import com.checkmarx.flow.exception.MachinaException;
 import com.checkmarx.flow.service.FilenameFormatter;
 import com.checkmarx.sdk.dto.ScanResults;
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
@@ -21,6 +19,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class JsonIssueTracker implements IssueTracker {
     private static final Logger log = org.slf4j.LoggerFactory.getLogger(JsonIssueTracker.class);
+    private static final String GZIP_EXTENSION = ".gz";
     private final JsonProperties properties;
     private final FilenameFormatter filenameFormatter;
 
@@ -29,6 +28,9 @@ public class JsonIssueTracker implements IssueTracker {
         if (properties != null) {
             if(request != null) {
                 String filename = filenameFormatter.formatPath(request, properties.getFileNameFormat(), properties.getDataFolder());
+                if (properties.isGzip() && !filename.endsWith(GZIP_EXTENSION)) {
+                    filename = filename.concat(GZIP_EXTENSION);
+                }
                 request.setFilename(filename);
                 log.info("Creating file {}", filename);
                 log.info("Deleting if already exists");
@@ -48,13 +50,18 @@ public class JsonIssueTracker implements IssueTracker {
         }
     }
 
+    @Override
+    public void initPlanning(ScanRequest request, ScanResults results) {
+        //Nothing to read: every finding is a new issue
+    }
+
     @Override
     public void complete(ScanRequest request, ScanResults results) throws MachinaException {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
             if(request != null && results != null) {
-                mapper.writeValue(new File(request.getFilename()), results);
+                try (OutputStream out = Files.newOutputStream(Paths.get(request.getFilename()))) {
+                    ScanResultsJsonWriter.write(results, out, properties.isNdjson(), properties.isGzip());
+                }
             } else {
                 log.error("No request or results provided");
                 throw new MachinaException();
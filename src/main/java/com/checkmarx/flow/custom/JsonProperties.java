@@ -11,6 +11,8 @@ public class JsonProperties {
     //TEAM, PROJECT, APP, BRANCH, REPO, NAMESPACE, TIME (YYYYMMDD.HHMMSS
     private String fileNameFormat = "[APP]-[BRANCH]-[TIME]";
     private String dataFolder = "/tmp";
+    private boolean ndjson = false;
+    private boolean gzip = false;
 
     public String getFileNameFormat() {
         return fileNameFormat;
@@ -27,4 +29,26 @@ public class JsonProperties {
     public void setDataFolder(String dataFolder) {
         this.dataFolder = dataFolder;
     }
+
+    /**
+     * Write one finding per line (newline-delimited JSON) instead of the whole scan results document.
+     */
+    public boolean isNdjson() {
+        return ndjson;
+    }
+
+    public void setNdjson(boolean ndjson) {
+        this.ndjson = ndjson;
+    }
+
+    /**
+     * Compress the file on the fly; .gz is appended to the file name.
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
 }
@@ -0,0 +1,67 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.flow.dto.Issue;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Issues of a paged tracker API, exposed as a stream. The next page is only requested once the issues of the
+ * previous page were consumed, so a single page is held in memory at a time.
+ *
+ * @param <P> page returned by the tracker API
+ */
+final class PagedIssues<P> implements Iterator<Issue> {
+
+    private final Function<P, P> nextPage;
+    private final Function<P, List<Issue>> pageIssues;
+    private P page;
+    private Iterator<Issue> current;
+
+    private PagedIssues(P firstPage, Function<P, P> nextPage, Function<P, List<Issue>> pageIssues) {
+        this.nextPage = nextPage;
+        this.pageIssues = pageIssues;
+        this.page = firstPage;
+        this.current = firstPage == null ? Collections.emptyIterator() : pageIssues.apply(firstPage).iterator();
+    }
+
+    /**
+     * @param firstPage  page already fetched, or null if there are no issues
+     * @param nextPage   fetches the page that follows the given one, or returns null after the last page
+     * @param pageIssues issues of a page; null elements are not allowed
+     */
+    static <P> Stream<Issue> stream(P firstPage, Function<P, P> nextPage, Function<P, List<Issue>> pageIssues) {
+        Iterator<Issue> iterator = new PagedIssues<>(firstPage, nextPage, pageIssues);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (page == null) {
+                return false;
+            }
+            page = nextPage.apply(page);
+            if (page == null) {
+                return false;
+            }
+            current = pageIssues.apply(page).iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public Issue next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+}
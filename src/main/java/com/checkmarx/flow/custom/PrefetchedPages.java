@@ -0,0 +1,83 @@
+package com.checkmarx.flow.custom;
+
+import org.slf4j.MDC;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+
+/**
+ * Pages of a tracker API whose page count is known up front. Pages are returned in order, while the following ones
+ * are already being fetched: at most maxPending requests are in flight, so memory stays bounded by the window
+ * rather than by the number of pages.
+ *
+ * @param <P> page returned by the tracker API
+ */
+final class PrefetchedPages<P> {
+
+    private final int lastPage;
+    private final int maxPending;
+    private final Executor executor;
+    private final IntFunction<P> fetch;
+    private final Map<String, String> loggingContext = MDC.getCopyOfContextMap();
+    private final Deque<CompletableFuture<P>> pending = new ArrayDeque<>();
+    private int nextPage;
+
+    /**
+     * @param firstPage  number of the first page to fetch
+     * @param lastPage   number of the last page to fetch (inclusive)
+     * @param maxPending maximum number of pages requested at the same time
+     * @param fetch      fetches the page with the given number
+     */
+    PrefetchedPages(int firstPage, int lastPage, int maxPending, Executor executor, IntFunction<P> fetch) {
+        this.nextPage = firstPage;
+        this.lastPage = lastPage;
+        this.maxPending = Math.max(1, maxPending);
+        this.executor = executor;
+        this.fetch = fetch;
+    }
+
+    /**
+     * @return the next page in order, or null after the last page. Exceptions of the fetch are rethrown as is.
+     */
+    P next() {
+        while (nextPage <= lastPage && pending.size() < maxPending) {
+            pending.add(submit(nextPage++));
+        }
+        CompletableFuture<P> page = pending.poll();
+        if (page == null) {
+            return null;
+        }
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private CompletableFuture<P> submit(int pageNumber) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, String> threadContext = MDC.getCopyOfContextMap();
+            try {
+                if (loggingContext != null) {
+                    MDC.setContextMap(loggingContext);
+                }
+                return fetch.apply(pageNumber);
+            } finally {
+                //Restore rather than clear, in case the executor runs the task on the calling thread
+                if (threadContext != null) {
+                    MDC.setContextMap(threadContext);
+                } else {
+                    MDC.clear();
+                }
+            }
+        }, executor);
+    }
+}
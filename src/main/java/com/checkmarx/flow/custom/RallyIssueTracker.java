@@ -26,6 +26,9 @@ import org.springframework.web.client.RestTemplate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service("Rally")
 public class RallyIssueTracker implements IssueTracker {
@@ -33,7 +36,7 @@ public class RallyIssueTracker implements IssueTracker {
     private static final long MAX_RESULTS_ALLOWED = 1000000L;
     private static final String TRANSITION_CLOSE = "Closed";
     private static final String TRANSITION_OPEN = "Open";
-    private static final String ISSUES_PER_PAGE = "100";
+    private static final int ISSUES_PER_PAGE = 100;
     private static final Logger log = LoggerFactory.getLogger(RallyIssueTracker.class);
     private static final String REQUEST_STATE_FIELD = "State";
     private static final String RALLY_DEFECT_STATE_FIELD = "State";
@@ -41,11 +44,13 @@ public class RallyIssueTracker implements IssueTracker {
     private final RestTemplate restTemplate;
     private final RallyProperties properties;
     private final FlowProperties flowProperties;
+    private final Executor executor;
 
     //
     /// RestAPI Endpoints
     //
-    private static final String GET_ISSUES = "/defect?query={query}&fetch=true&start={page_index}&pagesize={issues_per_page}";
+    //Only the attributes read by mapToIssue; _ref, _refObjectUUID and _refObjectName are always returned
+    private static final String GET_ISSUES = "/defect?query={query}&fetch=FormattedID,Name,State&start={start}&pagesize={issues_per_page}";
     private static final String CREATE_ISSUE = "/defect/create";
     private static final String CREATE_DISCUSSION = "/conversationpost/create";
     private static final String CREATE_TAG = "/tag/create";
@@ -55,15 +60,30 @@ public class RallyIssueTracker implements IssueTracker {
     //
     JSONArray tagsList = new JSONArray();
 
-    public RallyIssueTracker(@Qualifier("flowRestTemplate") RestTemplate restTemplate, RallyProperties properties, FlowProperties flowProperties) {
+    public RallyIssueTracker(@Qualifier("flowRestTemplate") RestTemplate restTemplate, RallyProperties properties, FlowProperties flowProperties,
+                             @Qualifier("issueTracker") Executor executor) {
         this.restTemplate = restTemplate;
         this.properties = properties;
         this.flowProperties = flowProperties;
+        this.executor = executor;
     }
 
     @Override
     public void init(ScanRequest request, ScanResults results) throws MachinaException {
         log.info("Initializing Rally processing");
+        validateRequest(request);
+        createRallyTags(request);
+    }
+
+    /**
+     * Only validates the request: the tags are created in Rally by {@link #init} when the issues are published.
+     */
+    @Override
+    public void initPlanning(ScanRequest request, ScanResults results) throws MachinaException {
+        validateRequest(request);
+    }
+
+    private void validateRequest(ScanRequest request) throws MachinaException {
         if(ScanUtils.empty(request.getNamespace()) ||
                 ScanUtils.empty(request.getRepoName()) ||
                 ScanUtils.empty(request.getBranch())) {
@@ -72,7 +92,6 @@ public class RallyIssueTracker implements IssueTracker {
         if(ScanUtils.empty(properties.getApiUrl())) {
             throw new MachinaException("Rally API Url must be provided in property config");
         }
-        createRallyTags(request);
     }
 
     /**
@@ -83,60 +102,67 @@ public class RallyIssueTracker implements IssueTracker {
      */
     @Override
     public List<Issue> getIssues(ScanRequest request) {
+        try {
+            return streamIssues(request).collect(Collectors.toList());
+        } catch(RestClientException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Issues of the Rally repository, fetched page by page while the stream is consumed. The issues don't have a body,
+     * which isn't used to update or close a Rally defect.
+     */
+    @Override
+    public Stream<Issue> streamIssues(ScanRequest request) {
         log.info("Executing getIssues Rally API call");
-        List<Issue> issues = new ArrayList<>();
         HttpEntity httpEntity = new HttpEntity(createAuthHeaders());
+        String query = createRallyTagQuery(request);
+        //
+        /// Read the first list of defects from Rally, it will contain the totalResultCount we can use
+        /// to figure out how many more pages of data needs to be pulled.
+        //
+        QueryResult firstPage;
         try {
-            int pageIndex = 0;
-            QueryResult rallyQuery;
-            ResponseEntity<QueryResult> response;
-            //
-            /// Read the first list of defects from Rally, it will contain the totalResultCount we can use
-            /// to figure out how many more pages of data needs to be pulled.
-            //
-            String query = createRallyTagQuery(request);
-            response = restTemplate.exchange(
-                    properties.getApiUrl().concat(GET_ISSUES),
-                    HttpMethod.GET,
-                    httpEntity,
-                    QueryResult.class,
-                    query,
-                    pageIndex,
-                    ISSUES_PER_PAGE
-            );
-            rallyQuery = response.getBody();
-            //
-            /// Now decode the CxFlow defects and continue reading lists of defects until we've found the
-            // totalResultCount
-            //
-            long totalResultCount = getTotalResultCount(rallyQuery);
-            int resultsFound = 0;
-            while(resultsFound < totalResultCount) {
-                resultsFound += rallyQuery.getQueryResult().getPageSize();
-                // Create CxFlow issues from Rally issues
-                for(Result issue: rallyQuery.getQueryResult().getResults()){
-                    Issue i = mapToIssue(issue);
-                    issues.add(i);
-                }
-                // If there are more issues on the server, fetch them
-                if(resultsFound < rallyQuery.getQueryResult().getTotalResultCount()) {
-                    pageIndex++;
-                    response = restTemplate.exchange(
-                            properties.getApiUrl().concat(GET_ISSUES),
-                            HttpMethod.GET,
-                            httpEntity,
-                            QueryResult.class,
-                            query,
-                            pageIndex,
-                            ISSUES_PER_PAGE
-                    );
-                    rallyQuery = response.getBody();
-                }
-            }
-            return issues;
+            firstPage = getIssuesPage(httpEntity, query, 0);
         } catch(RestClientException e) {
-            return new ArrayList<>();
+            return Stream.empty();
         }
+        //
+        /// The remaining pages are known now, fetch them up to rally.max-concurrent-page-requests at a time
+        //
+        int pageCount = (int) ((getTotalResultCount(firstPage) + ISSUES_PER_PAGE - 1) / ISSUES_PER_PAGE);
+        PrefetchedPages<QueryResult> pages = new PrefetchedPages<>(1, pageCount - 1,
+                properties.getMaxConcurrentPageRequests(), executor, pageIndex -> getIssuesPage(httpEntity, query, pageIndex));
+        return PagedIssues.stream(firstPage,
+                page -> pages.next(),
+                page -> {
+                    // Create CxFlow issues from Rally issues
+                    List<Issue> issues = new ArrayList<>();
+                    for(Result issue: page.getQueryResult().getResults()){
+                        Issue i = mapToIssue(issue);
+                        if (i != null) {
+                            issues.add(i);
+                        }
+                    }
+                    return issues;
+                });
+    }
+
+    /**
+     * @param pageIndex 0-based index of the page; Rally's start parameter is the 1-based index of the first defect
+     */
+    private QueryResult getIssuesPage(HttpEntity httpEntity, String query, int pageIndex) {
+        ResponseEntity<QueryResult> response = restTemplate.exchange(
+                properties.getApiUrl().concat(GET_ISSUES),
+                HttpMethod.GET,
+                httpEntity,
+                QueryResult.class,
+                query,
+                pageIndex * ISSUES_PER_PAGE + 1,
+                ISSUES_PER_PAGE
+        );
+        return response.getBody();
     }
 
     private long getTotalResultCount(QueryResult rallyQuery) {
@@ -0,0 +1,63 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.sdk.dto.ScanResults;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes scan results as JSON straight to an output stream, without building the document in memory.
+ * The writers are configured once and shared: an {@link ObjectWriter} is immutable and thread-safe.
+ */
+final class ScanResultsJsonWriter {
+
+    static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    //The target stream is closed by the caller, e.g. a streamed HTTP request body must not be closed by Jackson
+    private static final ObjectWriter JSON_WRITER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final ObjectWriter NDJSON_WRITER = JSON_WRITER.withRootValueSeparator("\n");
+
+    private ScanResultsJsonWriter() {
+    }
+
+    /**
+     * @param ndjson if true, one finding per line (newline-delimited JSON) instead of the whole results document
+     * @param gzip   compress the output on the fly
+     */
+    static void write(ScanResults results, OutputStream target, boolean ndjson, boolean gzip) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(target, BUFFER_SIZE) : null;
+        OutputStream out = new BufferedOutputStream(gzipStream != null ? gzipStream : target, BUFFER_SIZE);
+        if (ndjson) {
+            writeFindings(results, out);
+        } else {
+            JSON_WRITER.writeValue(out, results);
+        }
+        out.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+    }
+
+    private static void writeFindings(ScanResults results, OutputStream out) throws IOException {
+        if (results.getXIssues() == null || results.getXIssues().isEmpty()) {
+            return;
+        }
+        try (SequenceWriter findings = NDJSON_WRITER.writeValues(out)) {
+            for (ScanResults.XIssue issue : results.getXIssues()) {
+                findings.write(issue);
+            }
+        }
+        out.write('\n');
+    }
+}
@@ -3,6 +3,8 @@ package com.checkmarx.flow.custom;
 import com.checkmarx.flow.config.FlowProperties;
 import com.checkmarx.flow.config.ServiceNowProperties;
 import com.checkmarx.flow.dto.Issue;
+import com.checkmarx.flow.dto.IssueOutcome;
+import com.checkmarx.flow.dto.IssueUpdate;
 import com.checkmarx.flow.dto.ScanRequest;
 import com.checkmarx.flow.dto.servicenow.Incident;
 import com.checkmarx.flow.dto.servicenow.Result;
@@ -12,32 +14,56 @@ import com.checkmarx.flow.utils.ScanUtils;
 import com.checkmarx.sdk.dto.ScanResults;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestOperations;
 
 import javax.annotation.PostConstruct;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service Now Issue Tracker custom integration. It provides Service Now
  * Incident/Issue management services: create, search, update, close.
  */
 @Service("ServiceNow")
-public class ServiceNowTracker implements IssueTracker {
+public class ServiceNowTracker implements BatchIssueTracker {
     private static final String TRANSITION_CLOSE = "7";
     private static final String TRANSITION_OPEN = "1";
-    private static final int MAX_RECORDS = 1000;
+    //Incident fields read by mapToIssue
+    private static final String ISSUE_FIELDS = "sys_id,state,short_description,description";
+    private static final String ISSUE_FIELDS_WITHOUT_BODY = "sys_id,state,short_description";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String BATCH_PATH = "/api/now/v1/batch";
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
     private static final Logger log = LoggerFactory.getLogger(ServiceNowTracker.class);
     private static final String INCIDENTS = "/incident";
@@ -52,6 +78,10 @@ public class ServiceNowTracker implements IssueTracker {
     @Autowired
     private FlowProperties flowProperties;
 
+    @Autowired
+    @Qualifier("issueTracker")
+    private Executor executor;
+
     @Override
     public void init(ScanRequest request, ScanResults results) throws MachinaException {
         log.info("Initializing Service Now Tracker");
@@ -135,34 +165,91 @@ public class ServiceNowTracker implements IssueTracker {
     @Override
     public List<Issue> getIssues(ScanRequest request) throws MachinaException {
         log.debug("Executing getIssues Service Now API call");
-        String apiRequest = createServiceNowRequest(request);
         try {
-            Optional<Result> res = Optional.ofNullable(restOperations.getForObject(apiRequest, Result.class));
-            if (res.isPresent()) {
-                return res.get().getIncidents()
-                        .stream()
-                        .map(i -> this.mapToIssue(i))
-                        .collect(Collectors.toList());
-            }
+            return streamIssues(request, true).collect(Collectors.toList());
         } catch(RestClientException e) {
             log.error("Error occurred while fetching ServiceNow Issues");
             log.error(ExceptionUtils.getStackTrace(e));
             throw new MachinaRuntimeException();
         }
-        return Lists.newArrayList();
+    }
+
+    /**
+     * Incidents without their description, which isn't needed to update or close them.
+     */
+    @Override
+    public Stream<Issue> streamIssues(ScanRequest request) {
+        return streamIssues(request, false);
+    }
+
+    /**
+     * Pages of servicenow.page-size incidents. Service Now returns the total in the X-Total-Count header, so the
+     * remaining pages are requested up to servicenow.max-concurrent-page-requests at a time; without it, pages are
+     * requested one by one until a page isn't full.
+     */
+    private Stream<Issue> streamIssues(ScanRequest request, boolean withBody) {
+        String apiRequest = createServiceNowRequest(request, withBody ? ISSUE_FIELDS : ISSUE_FIELDS_WITHOUT_BODY);
+        int pageSize = Math.max(1, properties.getPageSize());
+        ResponseEntity<Result> response = getIncidentsPage(apiRequest, 0, pageSize);
+        IncidentPage firstPage = new IncidentPage(0, getIncidents(response));
+
+        UnaryOperator<IncidentPage> nextPage;
+        String totalCount = response.getHeaders().getFirst(TOTAL_COUNT_HEADER);
+        if (!ScanUtils.empty(totalCount)) {
+            int pageCount = (Integer.parseInt(totalCount.trim()) + pageSize - 1) / pageSize;
+            PrefetchedPages<IncidentPage> pages = new PrefetchedPages<>(1, pageCount - 1,
+                    properties.getMaxConcurrentPageRequests(), executor,
+                    page -> new IncidentPage(page * pageSize, getIncidents(getIncidentsPage(apiRequest, page * pageSize, pageSize))));
+            nextPage = page -> pages.next();
+        } else {
+            nextPage = page -> {
+                if (page.incidents.size() < pageSize) {
+                    return null;
+                }
+                int offset = page.offset + pageSize;
+                return new IncidentPage(offset, getIncidents(getIncidentsPage(apiRequest, offset, pageSize)));
+            };
+        }
+        return PagedIssues.stream(firstPage, nextPage,
+                page -> page.incidents.stream().map(this::mapToIssue).collect(Collectors.toList()));
+    }
+
+    private ResponseEntity<Result> getIncidentsPage(String apiRequest, int offset, int pageSize) {
+        log.debug("Getting incidents {} to {}", offset, offset + pageSize);
+        return restOperations.exchange(apiRequest, HttpMethod.GET, null, Result.class, offset, pageSize);
+    }
+
+    private static List<Incident> getIncidents(ResponseEntity<Result> response) {
+        return Optional.ofNullable(response.getBody())
+                .map(Result::getIncidents)
+                .orElse(Lists.newArrayList());
+    }
+
+    private static class IncidentPage {
+        private final int offset;
+        private final List<Incident> incidents;
+
+        IncidentPage(int offset, List<Incident> incidents) {
+            this.offset = offset;
+            this.incidents = incidents;
+        }
     }
 
     /**
      * Create Service Now request based on the ScanRequest params.
      * @param request
-     * @return query string value.
+     * @param fields incident fields to return
+     * @return query string value, with the offset and limit as uri variables. Incidents are ordered by sys_id, as
+     * Service Now doesn't otherwise guarantee a stable order across the pages.
      */
-    private String createServiceNowRequest(ScanRequest request) {
+    private String createServiceNowRequest(ScanRequest request, String fields) {
         if(ScanUtils.emptyObj(request)){
             throw new RuntimeException("ScanRequest object is empty");
         }
         String tag = createServiceNowTag(request);
-        return String.format("%s%s?comments=%s&sysparm_limit=", properties.getApiUrl(), INCIDENTS, tag, MAX_RECORDS);
+        return String.format("%s%s?comments=%s&sysparm_query=ORDERBYsys_id&sysparm_fields=%s"
+                        + "&sysparm_offset={offset}&sysparm_limit={limit}",
+                properties.getApiUrl(), INCIDENTS, tag, fields);
     }
 
     /**
@@ -218,7 +305,7 @@ public class ServiceNowTracker implements IssueTracker {
     private Optional<Issue> getIncidentByIDConvertToIssue(String sysId) {
         log.debug("Executing getIncidentByIDConvertToIssue");
         try {
-            String apiRequest = String.format("%s%s?sys_id=%s", properties.getApiUrl(), INCIDENTS, sysId);
+            String apiRequest = String.format("%s%s?sys_id=%s&sysparm_fields=%s", properties.getApiUrl(), INCIDENTS, sysId, ISSUE_FIELDS);
             Optional<Result> res = Optional.ofNullable(restOperations.getForObject(apiRequest, Result.class));
             if (res.isPresent()) {
                 return res.get().getIncidents()
@@ -283,9 +370,8 @@ public class ServiceNowTracker implements IssueTracker {
         Incident incident = updateIncidentFromIssue(issue, request, resultIssue);
         try {
             String query = String.format("%s%s/%s", properties.getApiUrl(), INCIDENTS, issue.getId());
-            this.addComment(incident, resultIssue.getGitUrl(),"Issue still exists. ");
             restOperations.put(query, incident);
-            return getIssues(request).stream().findFirst()
+            return getIncidentByIDConvertToIssue(issue.getId())
                     .orElseThrow(() -> new MachinaException("Incident record hasn't been found."));
         } catch (HttpClientErrorException e) {
             log.error("Error updating issue.");
@@ -293,6 +379,138 @@ public class ServiceNowTracker implements IssueTracker {
         }
     }
 
+    /**
+     * Writes go through the Batch API in groups of servicenow.batch-size requests; 1 disables it.
+     */
+    @Override
+    public int getBatchSize() {
+        return Math.max(1, properties.getBatchSize());
+    }
+
+    @Override
+    public List<IssueOutcome> createIssues(List<ScanResults.XIssue> resultIssues, ScanRequest request) throws MachinaException {
+        if (resultIssues.size() < 2) {
+            return BatchIssueTracker.super.createIssues(resultIssues, request);
+        }
+        List<BatchRequest> requests = new ArrayList<>();
+        for (ScanResults.XIssue resultIssue : resultIssues) {
+            requests.add(new BatchRequest(HttpMethod.POST, INCIDENTS, getCreateIncident(resultIssue, request)));
+        }
+        List<IssueOutcome> outcomes = executeBatch(requests);
+        return outcomes != null ? outcomes : BatchIssueTracker.super.createIssues(resultIssues, request);
+    }
+
+    @Override
+    public List<IssueOutcome> updateIssues(List<IssueUpdate> updates, ScanRequest request) throws MachinaException {
+        if (updates.size() < 2) {
+            return BatchIssueTracker.super.updateIssues(updates, request);
+        }
+        List<BatchRequest> requests = new ArrayList<>();
+        for (IssueUpdate update : updates) {
+            requests.add(new BatchRequest(HttpMethod.PUT, INCIDENTS.concat("/").concat(update.getIssue().getId()),
+                    updateIncidentFromIssue(update.getIssue(), request, update.getResultIssue())));
+        }
+        List<IssueOutcome> outcomes = executeBatch(requests);
+        return outcomes != null ? outcomes : BatchIssueTracker.super.updateIssues(updates, request);
+    }
+
+    @Override
+    public List<IssueOutcome> closeIssues(List<Issue> issues, ScanRequest request) throws MachinaException {
+        if (issues.size() < 2) {
+            return BatchIssueTracker.super.closeIssues(issues, request);
+        }
+        List<BatchRequest> requests = new ArrayList<>();
+        for (Issue issue : issues) {
+            requests.add(new BatchRequest(HttpMethod.PUT, INCIDENTS.concat("/").concat(issue.getId()), getCloseIncident(request)));
+        }
+        List<IssueOutcome> outcomes = executeBatch(requests);
+        if (outcomes == null) {
+            return BatchIssueTracker.super.closeIssues(issues, request);
+        }
+        //Report the closed issues as they were passed in, like closeIssue
+        List<IssueOutcome> closeOutcomes = new ArrayList<>();
+        for (int i = 0; i < issues.size(); i++) {
+            closeOutcomes.add(outcomes.get(i).isSuccess() ? IssueOutcome.success(issues.get(i)) : outcomes.get(i));
+        }
+        return closeOutcomes;
+    }
+
+    /**
+     * Sends the requests to the Service Now Batch API as a single call.
+     *
+     * @return one outcome per request, in order, or null if the batch call itself failed (e.g. the Batch API isn't
+     * available on the instance) and the requests should be sent one by one.
+     */
+    private List<IssueOutcome> executeBatch(List<BatchRequest> requests) {
+        log.info("Executing Service Now batch API call with {} requests", requests.size());
+        URI tableUri = URI.create(properties.getApiUrl());
+        String batchUrl = String.format("%s://%s%s", tableUri.getScheme(), tableUri.getRawAuthority(), BATCH_PATH);
+        try {
+            JSONArray restRequests = new JSONArray();
+            for (int i = 0; i < requests.size(); i++) {
+                BatchRequest batchRequest = requests.get(i);
+                restRequests.put(new JSONObject()
+                        .put("id", String.valueOf(i))
+                        .put("method", batchRequest.method.name())
+                        .put("url", String.format("%s%s?sysparm_fields=%s", tableUri.getRawPath(), batchRequest.path, ISSUE_FIELDS))
+                        .put("headers", new JSONArray()
+                                .put(new JSONObject().put("name", HttpHeaders.CONTENT_TYPE).put("value", MediaType.APPLICATION_JSON_VALUE))
+                                .put(new JSONObject().put("name", HttpHeaders.ACCEPT).put("value", MediaType.APPLICATION_JSON_VALUE)))
+                        .put("body", Base64.getEncoder().encodeToString(mapper.writeValueAsBytes(batchRequest.incident))));
+            }
+            JSONObject batch = new JSONObject()
+                    .put("batch_request_id", String.valueOf(System.nanoTime()))
+                    .put("rest_requests", restRequests);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            ResponseEntity<String> response = restOperations.exchange(batchUrl, HttpMethod.POST,
+                    new HttpEntity<>(batch.toString(), headers), String.class);
+            if (response.getBody() == null) {
+                log.warn("Service Now batch API returned no response, sending the requests one by one");
+                return null;
+            }
+            return getBatchOutcomes(new JSONObject(response.getBody()), requests.size());
+        } catch (RestClientException | JSONException | IOException e) {
+            log.warn("Service Now batch API call failed, sending the requests one by one: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private List<IssueOutcome> getBatchOutcomes(JSONObject batchResponse, int count) throws IOException {
+        IssueOutcome[] outcomes = new IssueOutcome[count];
+        JSONArray serviced = batchResponse.optJSONArray("serviced_requests");
+        for (int i = 0; serviced != null && i < serviced.length(); i++) {
+            JSONObject servicedRequest = serviced.getJSONObject(i);
+            int statusCode = servicedRequest.getInt("status_code");
+            if (statusCode >= 200 && statusCode < 300) {
+                byte[] body = Base64.getDecoder().decode(servicedRequest.getString("body"));
+                JsonNode incident = mapper.readTree(body).get("result");
+                outcomes[servicedRequest.getInt("id")] = IssueOutcome.success(mapToIssue(mapper.treeToValue(incident, Incident.class)));
+            } else {
+                outcomes[servicedRequest.getInt("id")] = IssueOutcome.failure(new MachinaException(String.format(
+                        "Service Now request failed: %d %s", statusCode, servicedRequest.optString("status_text"))));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (outcomes[i] == null) {
+                outcomes[i] = IssueOutcome.failure(new MachinaException("Service Now request wasn't serviced by the batch"));
+            }
+        }
+        return Lists.newArrayList(outcomes);
+    }
+
+    private static class BatchRequest {
+        private final HttpMethod method;
+        private final String path;
+        private final Incident incident;
+
+        BatchRequest(HttpMethod method, String path, Incident incident) {
+            this.method = method;
+            this.path = path;
+            this.incident = incident;
+        }
+    }
+
     /**
      * Add a comment to an existing Service Now Issue
      *
@@ -318,6 +536,7 @@ public class ServiceNowTracker implements IssueTracker {
             incident.setSysId(issue.getId());
             incident.setSeverity(resultIssue.getSeverity());
             incident.setState(TRANSITION_OPEN);
+            this.addComment(incident, resultIssue.getGitUrl(),"Issue still exists. ");
             return incident;
     }
 
@@ -6,21 +6,24 @@ import com.checkmarx.flow.exception.MachinaException;
 import com.checkmarx.flow.service.FilenameFormatter;
 import com.checkmarx.flow.utils.ScanUtils;
 import com.checkmarx.sdk.dto.ScanResults;
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
@@ -33,19 +36,25 @@ public class WebPostIssueTracker implements IssueTracker {
     private static final Logger log = LoggerFactory.getLogger(WebPostIssueTracker.class);
     private final WebPostProperties properties;
     private final RestTemplate restTemplate;
+    //Sends request bodies as they are written (chunked), instead of buffering them first
+    private final RestTemplate streamingRestTemplate;
     private final FilenameFormatter filenameFormatter;
 
     public WebPostIssueTracker(WebPostProperties properties,
                                @Qualifier("flowRestTemplate") RestTemplate restTemplate,
+                               @Lazy @Qualifier("flowStreamingRestTemplate") RestTemplate streamingRestTemplate,
                                FilenameFormatter filenameFormatter) {
         this.properties = properties;
         this.restTemplate = restTemplate;
+        this.streamingRestTemplate = streamingRestTemplate;
         this.filenameFormatter = filenameFormatter;
     }
 
     @Override
     public void init(ScanRequest request, ScanResults results) throws MachinaException {
-        if(request != null) {
+        if(request != null && properties.isStreaming()) {
+            log.debug("Results are streamed to the web url, no temporary file needed");
+        } else if(request != null) {
             String initialFilename = "cx.".concat(UUID.randomUUID().toString());
             String filename = filenameFormatter.formatPath(request, initialFilename, properties.getDataFolder());
             request.setFilename(filename);
@@ -63,13 +72,20 @@ public class WebPostIssueTracker implements IssueTracker {
         }
     }
 
+    @Override
+    public void initPlanning(ScanRequest request, ScanResults results) {
+        //Nothing to read: every finding is a new issue
+    }
+
     @Override
     public void complete(ScanRequest request, ScanResults results) throws MachinaException {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            if(request != null && results != null) {
-                mapper.writeValue(new File(request.getFilename()), results);
+            if(request != null && results != null && properties.isStreaming()) {
+                streamResults(request, results);
+            } else if(request != null && results != null) {
+                try (OutputStream out = Files.newOutputStream(Paths.get(request.getFilename()))) {
+                    ScanResultsJsonWriter.write(results, out, properties.isNdjson(), properties.isGzip());
+                }
                 String resultUrl = request.getAdditionalMetadata("result_url");
                 String filename = request.getFilename();
                 if(ScanUtils.anyEmpty(resultUrl, filename)){
@@ -79,7 +95,7 @@ public class WebPostIssueTracker implements IssueTracker {
                 File resultFile = new File(filename);
                 log.info("Saving file {} to signed web url", filename);
                 HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
+                setContentHeaders(headers);
                 HttpEntity<byte[]> entity = new HttpEntity<>(Files.readAllBytes(Paths.get(resultFile.getCanonicalPath())), headers);
                 URI uri = new URI(resultUrl);
                 restTemplate.put(uri, entity);
@@ -101,6 +117,40 @@ public class WebPostIssueTracker implements IssueTracker {
         }
     }
 
+    /**
+     * PUTs the results to the web url while they are serialized: no temporary file, and the body is never held in
+     * memory as a whole. The request is sent with chunked transfer encoding, which the target has to accept.
+     */
+    private void streamResults(ScanRequest request, ScanResults results) throws URISyntaxException, MachinaException {
+        String resultUrl = request.getAdditionalMetadata("result_url");
+        if(ScanUtils.empty(resultUrl)){
+            log.error("result_url was missing from the ScanRequest metadata");
+            throw new MachinaException();
+        }
+        log.info("Streaming results to signed web url");
+        streamingRestTemplate.execute(new URI(resultUrl), HttpMethod.PUT, httpRequest -> writeBody(httpRequest, results), null);
+        log.info("Save successful");
+    }
+
+    private void writeBody(ClientHttpRequest httpRequest, ScanResults results) throws IOException {
+        setContentHeaders(httpRequest.getHeaders());
+        if (httpRequest instanceof StreamingHttpOutputMessage) {
+            ((StreamingHttpOutputMessage) httpRequest).setBody(out ->
+                    ScanResultsJsonWriter.write(results, out, properties.isNdjson(), properties.isGzip()));
+        } else {
+            ScanResultsJsonWriter.write(results, httpRequest.getBody(), properties.isNdjson(), properties.isGzip());
+        }
+    }
+
+    private void setContentHeaders(HttpHeaders headers) {
+        headers.setContentType(properties.isNdjson()
+                ? MediaType.parseMediaType(ScanResultsJsonWriter.NDJSON_CONTENT_TYPE)
+                : MediaType.APPLICATION_JSON);
+        if (properties.isGzip()) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+    }
+
     @Override
     public String getFalsePositiveLabel() throws MachinaException {
         return null;
@@ -10,6 +10,9 @@ import org.springframework.validation.annotation.Validated;
 public class WebPostProperties {
     private String fileNameFormat = "[APP]-[BRANCH]-[TIME]";
     private String dataFolder = "/tmp";
+    private boolean streaming = false;
+    private boolean ndjson = false;
+    private boolean gzip = false;
 
 
     public String getDataFolder() {
@@ -19,4 +22,38 @@ public class WebPostProperties {
     public void setDataFolder(String dataFolder) {
         this.dataFolder = dataFolder;
     }
+
+    /**
+     * PUT the results to the web url while they are serialized (chunked transfer encoding), instead of writing a
+     * temporary file and sending it with a Content-Length.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Send one finding per line (newline-delimited JSON) instead of the whole scan results document.
+     */
+    public boolean isNdjson() {
+        return ndjson;
+    }
+
+    public void setNdjson(boolean ndjson) {
+        this.ndjson = ndjson;
+    }
+
+    /**
+     * Compress the body on the fly, sent with Content-Encoding: gzip.
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
 }
@@ -0,0 +1,37 @@
+package com.checkmarx.flow.dto;
+
+import lombok.Getter;
+
+/**
+ * Result of creating, updating or closing a single issue as part of a batch.
+ */
+@Getter
+public class IssueOutcome {
+
+    /**
+     * Issue that was created, updated or closed. May be null if the tracker doesn't return it.
+     */
+    private final Issue issue;
+
+    /**
+     * Why the operation failed, or null if it succeeded.
+     */
+    private final Exception error;
+
+    private IssueOutcome(Issue issue, Exception error) {
+        this.issue = issue;
+        this.error = error;
+    }
+
+    public static IssueOutcome success(Issue issue) {
+        return new IssueOutcome(issue, null);
+    }
+
+    public static IssueOutcome failure(Exception error) {
+        return new IssueOutcome(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
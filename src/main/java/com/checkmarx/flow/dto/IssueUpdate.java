@@ -0,0 +1,15 @@
+package com.checkmarx.flow.dto;
+
+import com.checkmarx.sdk.dto.ScanResults;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Existing issue together with the finding it should be updated with.
+ */
+@Getter
+@AllArgsConstructor
+public class IssueUpdate {
+    private final Issue issue;
+    private final ScanResults.XIssue resultIssue;
+}
@@ -0,0 +1,79 @@
+package com.checkmarx.flow.dto;
+
+import com.checkmarx.flow.constants.JiraConstants;
+import com.checkmarx.sdk.dto.ScanResults;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tickets created/updated/closed while publishing one set of scan results to Jira, together with the findings
+ * that haven't been published (yet). A new instance is used for every publish, so that concurrent publishes
+ * don't share any state.
+ */
+public class JiraPublishOutcome {
+
+    private final List<String> newIssues = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> updatedIssues = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> closedIssues = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, ScanResults.XIssue> unpublishedResults = new ConcurrentHashMap<>();
+
+    public void addNewIssue(String issueKey) {
+        newIssues.add(issueKey);
+    }
+
+    public void addUpdatedIssue(String issueKey) {
+        updatedIssues.add(issueKey);
+    }
+
+    public void addClosedIssue(String issueKey) {
+        closedIssues.add(issueKey);
+    }
+
+    /**
+     * Registers findings that are about to be published. They are reported as unpublished until
+     * {@link #markPublished(String)} is called for them.
+     */
+    public void addUnpublishedResults(Map<String, ScanResults.XIssue> results) {
+        if (results != null) {
+            unpublishedResults.putAll(results);
+        }
+    }
+
+    public void markPublished(String key) {
+        unpublishedResults.remove(key);
+    }
+
+    public List<String> getNewIssues() {
+        return copyOf(newIssues);
+    }
+
+    public List<String> getUpdatedIssues() {
+        return copyOf(updatedIssues);
+    }
+
+    public List<String> getClosedIssues() {
+        return copyOf(closedIssues);
+    }
+
+    public Map<String, ScanResults.XIssue> getUnpublishedResults() {
+        return Collections.unmodifiableMap(unpublishedResults);
+    }
+
+    public ImmutableMap<String, List<String>> toTicketsMap() {
+        return ImmutableMap.of(
+                JiraConstants.NEW_TICKET, getNewIssues(),
+                JiraConstants.UPDATED_TICKET, getUpdatedIssues(),
+                JiraConstants.CLOSED_TICKET, getClosedIssues());
+    }
+
+    private static List<String> copyOf(List<String> issues) {
+        synchronized (issues) {
+            return new ArrayList<>(issues);
+        }
+    }
+}
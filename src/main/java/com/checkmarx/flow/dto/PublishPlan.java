@@ -0,0 +1,36 @@
+package com.checkmarx.flow.dto;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Issue keys that a publish of the scan results would create, update, close or leave untouched.
+ * Computed without writing to the bug tracker.
+ */
+@Getter
+@Builder
+public class PublishPlan {
+
+    private final String bugTracker;
+    private final List<String> issuesToCreate;
+    private final List<String> issuesToUpdate;
+    private final List<String> issuesToClose;
+    private final List<String> skipped;
+
+    /**
+     * Time it took to compute the plan, in milliseconds.
+     */
+    private final long planningTime;
+
+    public Map<String, Integer> getCounts() {
+        return ImmutableMap.of(
+                "create", issuesToCreate.size(),
+                "update", issuesToUpdate.size(),
+                "close", issuesToClose.size(),
+                "skip", skipped.size());
+    }
+}
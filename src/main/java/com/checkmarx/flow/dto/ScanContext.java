@@ -0,0 +1,59 @@
+package com.checkmarx.flow.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.File;
+
+/**
+ * Per-request state of a scan, carried through the scanner methods instead of being kept in scanner fields,
+ * so that a single scanner instance can serve concurrent requests.
+ */
+@Getter
+@Builder
+public class ScanContext {
+
+    private final ScanRequest request;
+
+    /**
+     * Zip file with the sources to scan, if the sources are not fetched from a remote repository.
+     */
+    private final File cxFile;
+
+    /**
+     * Folder supplied via the -f command line flag, if the sources are located in the local filesystem.
+     */
+    private final String sourcesPath;
+
+    @Setter
+    private ScanDetails scanDetails;
+
+    public static ScanContext of(ScanRequest request) {
+        return ScanContext.builder().request(request).build();
+    }
+
+    public static ScanContext of(ScanRequest request, File cxFile) {
+        return ScanContext.builder().request(request).cxFile(cxFile).build();
+    }
+
+    /**
+     * @return location of the scanned sources, as reported in the scan analytics.
+     */
+    public String getRepoUrl() {
+        String repoUrl;
+
+        if (sourcesPath != null) {
+            //the folder to scan is supplied via -f flag in command line and it is located in the filesystem
+            repoUrl = sourcesPath;
+        } else if (cxFile != null) {
+            //in general cxFile is a zip created by cxFlow using the folder supplied y -f
+            //the use case when sourcePath is empty but cxFile is set is only for the test flow
+            repoUrl = cxFile.getAbsolutePath();
+        } else {
+            //sources to scan are in the remote repository (GitHib, TFS ... etc)
+            repoUrl = request.getRepoUrl();
+        }
+        return repoUrl;
+    }
+}
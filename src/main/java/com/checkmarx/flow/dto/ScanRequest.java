@@ -70,6 +70,11 @@ public class ScanRequest {
     private Map<String, String> additionalMetadata;
     private List<VulnerabilityScanner> vulnerabilityScanners;
 
+    /**
+     * If set, the results are not published: only the issues that would be created, updated and closed are computed.
+     */
+    private boolean dryRun;
+
     public ScanRequest(ScanRequest other) {
         this.namespace = other.namespace;
         this.application = other.application;
@@ -103,6 +108,7 @@ public class ScanRequest {
         this.filter = other.filter;
         this.forceScan = other.forceScan;
         this.vulnerabilityScanners = other.vulnerabilityScanners;
+        this.dryRun = other.dryRun;
     }
 
     public Map<String,String> getAltFields() {
@@ -83,6 +83,9 @@ public class Issue extends RepoIssue {
     @JsonProperty("href")
     private String href;
 
+    @JsonProperty("node_id")
+    private String nodeId;
+
     @ConstructorProperties({"pullRequest", "comments", "closedAt", "assignees", "createdAt", "title", "body", "url", "labels", "closedBy", "labelsUrl", "number", "milestone", "updatedAt", "eventsUrl", "htmlUrl", "commentsUrl", "id", "repositoryUrl", "state", "assignee", "locked", "user", "href"})
     public Issue(PullRequest pullRequest, int comments, Object closedAt, List<AssigneesItem> assignees, String createdAt, String title, String body, String url, List<LabelsItem> labels, ClosedBy closedBy, String labelsUrl, int number, Milestone milestone, String updatedAt, String eventsUrl, String htmlUrl, String commentsUrl, int id, String repositoryUrl, String state, Assignee assignee, boolean locked, User user, String href) {
         this.pullRequest = pullRequest;
@@ -311,6 +314,17 @@ public class Issue extends RepoIssue {
         this.href = href;
     }
 
+    /**
+     * Global id of the issue, used by the GraphQL API.
+     */
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
     public String toString() {
         return "Issue(pullRequest=" + this.getPullRequest() + ", comments=" + this.getComments() + ", closedAt=" + this.getClosedAt() + ", assignees=" + this.getAssignees() + ", createdAt=" + this.getCreatedAt() + ", title=" + this.getTitle() + ", body=" + this.getBody() + ", url=" + this.getUrl() + ", labels=" + this.getLabels() + ", closedBy=" + this.getClosedBy() + ", labelsUrl=" + this.getLabelsUrl() + ", number=" + this.getNumber() + ", milestone=" + this.getMilestone() + ", updatedAt=" + this.getUpdatedAt() + ", eventsUrl=" + this.getEventsUrl() + ", htmlUrl=" + this.getHtmlUrl() + ", commentsUrl=" + this.getCommentsUrl() + ", id=" + this.getId() + ", repositoryUrl=" + this.getRepositoryUrl() + ", state=" + this.getState() + ", assignee=" + this.getAssignee() + ", locked=" + this.isLocked() + ", user=" + this.getUser() + ", href=" + this.getHref() + ")";
     }
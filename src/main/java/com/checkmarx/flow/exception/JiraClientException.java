@@ -5,5 +5,8 @@ public class JiraClientException extends MachinaException {
     public JiraClientException(String message) {
         super(message);
     }
+    public JiraClientException(String message, Throwable cause) {
+        super(message, cause);
+    }
     //TODO Step?
 }
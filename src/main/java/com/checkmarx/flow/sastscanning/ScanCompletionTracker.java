@@ -0,0 +1,173 @@
+package com.checkmarx.flow.sastscanning;
+
+import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.exception.CheckmarxException;
+import com.checkmarx.sdk.service.CxClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Follows submitted SAST scans until they are finished, using a single scheduled poller instead of
+ * parking one thread per scan in {@link CxClient#waitForScanCompletion(Integer)}.
+ */
+@Component
+@Slf4j
+public class ScanCompletionTracker {
+
+    /* CxSAST REST API scan status ids */
+    private static final int SCAN_STATUS_FINISHED = 7;
+    private static final int SCAN_STATUS_CANCELED = 8;
+    private static final int SCAN_STATUS_FAILED = 9;
+
+    private final CxClient cxService;
+    private final CxProperties cxProperties;
+    private final FlowProperties flowProperties;
+    private final TaskScheduler scheduler;
+    private final Executor completionExecutor;
+
+    private final Map<Integer, TrackedScan> trackedScans = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> poller;
+
+    public ScanCompletionTracker(CxClient cxService,
+                                 CxProperties cxProperties,
+                                 FlowProperties flowProperties,
+                                 @Qualifier("scanCompletion") TaskScheduler scheduler,
+                                 @Qualifier("scanRequest") Executor completionExecutor) {
+        this.cxService = cxService;
+        this.cxProperties = cxProperties;
+        this.flowProperties = flowProperties;
+        this.scheduler = scheduler;
+        this.completionExecutor = completionExecutor;
+    }
+
+    /**
+     * Registers a submitted scan with the poller.
+     *
+     * @return future completed with the scan id once CxSAST reports the scan as finished. The future is completed
+     * on the scanRequest executor, so dependent stages never run on the poller thread.
+     */
+    public CompletableFuture<Integer> track(Integer scanId) {
+        TrackedScan scan = trackedScans.computeIfAbsent(scanId, id -> new TrackedScan(id, getInitialInterval()));
+        log.info("Tracking completion of scan {}. Scans currently tracked: {}", scanId, trackedScans.size());
+        startPoller();
+        return scan.future;
+    }
+
+    public int getTrackedScanCount() {
+        return trackedScans.size();
+    }
+
+    private synchronized void startPoller() {
+        if (poller == null) {
+            long tick = Math.max(1, Math.min(flowProperties.getScanCompletionPollInterval(), 5));
+            poller = scheduler.scheduleWithFixedDelay(this::poll, Duration.ofSeconds(tick));
+        }
+    }
+
+    /**
+     * Checks the status of the scans that are due, at most {@link FlowProperties#getScanCompletionBatchSize()}
+     * per run, oldest due scan first.
+     */
+    void poll() {
+        poll(System.currentTimeMillis());
+    }
+
+    void poll(long now) {
+        List<TrackedScan> dueScans = trackedScans.values().stream()
+                .filter(scan -> scan.nextPollAt <= now)
+                .sorted(Comparator.comparingLong(scan -> scan.nextPollAt))
+                .limit(Math.max(1, flowProperties.getScanCompletionBatchSize()))
+                .collect(Collectors.toList());
+
+        for (TrackedScan scan : dueScans) {
+            checkStatus(scan, now);
+        }
+    }
+
+    /**
+     * A scan whose status can't be retrieved is polled again later, until it times out.
+     */
+    private void checkStatus(TrackedScan scan, long now) {
+        Integer status;
+        try {
+            status = cxService.getScanStatus(scan.scanId);
+        } catch (Exception e) {
+            log.warn("Unable to retrieve status of scan {}: {}", scan.scanId, e.getMessage());
+            status = null;
+        }
+        if (status != null && status == SCAN_STATUS_FINISHED) {
+            log.info("Scan {} finished", scan.scanId);
+            release(scan, null);
+        } else if (status != null && (status == SCAN_STATUS_CANCELED || status == SCAN_STATUS_FAILED)) {
+            release(scan, new CheckmarxException(String.format("Scan %d was canceled or has failed", scan.scanId)));
+        } else if (now - scan.registeredAt > TimeUnit.MINUTES.toMillis(cxProperties.getScanTimeout())) {
+            release(scan, new CheckmarxException(String.format("Timed out waiting for scan %d to complete", scan.scanId)));
+        } else {
+            log.debug("Scan {} is still in progress (status {})", scan.scanId, status);
+            scan.backOff(now, getMaxInterval());
+        }
+    }
+
+    private void release(TrackedScan scan, Exception failure) {
+        trackedScans.remove(scan.scanId);
+        completionExecutor.execute(() -> {
+            if (failure == null) {
+                scan.future.complete(scan.scanId);
+            } else {
+                scan.future.completeExceptionally(failure);
+            }
+        });
+    }
+
+    private long getInitialInterval() {
+        return TimeUnit.SECONDS.toMillis(flowProperties.getScanCompletionPollInterval());
+    }
+
+    private long getMaxInterval() {
+        return TimeUnit.SECONDS.toMillis(flowProperties.getScanCompletionMaxPollInterval());
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (poller != null) {
+            poller.cancel(false);
+        }
+        if (!trackedScans.isEmpty()) {
+            log.warn("Stopped tracking {} scans that are still in progress", trackedScans.size());
+        }
+    }
+
+    private static class TrackedScan {
+        private final Integer scanId;
+        private final CompletableFuture<Integer> future = new CompletableFuture<>();
+        private final long registeredAt = System.currentTimeMillis();
+        private volatile long interval;
+        private volatile long nextPollAt;
+
+        private TrackedScan(Integer scanId, long interval) {
+            this.scanId = scanId;
+            this.interval = interval;
+            this.nextPollAt = registeredAt + interval;
+        }
+
+        private void backOff(long now, long maxInterval) {
+            interval = Math.min(interval * 2, maxInterval);
+            nextPollAt = now + interval;
+        }
+    }
+}
@@ -1,28 +1,67 @@
 package com.checkmarx.flow.service;
 
+import com.checkmarx.flow.config.FlowProperties;
 import com.checkmarx.flow.dto.ScanRequest;
 import com.checkmarx.sdk.dto.ScanResults;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.MDC;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ReflectionUtils;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 /**
  * High level business logic for CxFlow automation.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class FlowService {
 
+    private static final Method INITIATE_AUTOMATION = ReflectionUtils.findMethod(FlowService.class, "initiateAutomation", ScanRequest.class);
+
     private final List<VulnerabilityScanner> scanners;
     private final ProjectNameGenerator projectNameGenerator;
     private final ResultsService resultsService;
+    private final FlowProperties flowProperties;
+    private final AsyncTaskExecutor scannerExecutor;
+    private final TaskScheduler timeoutScheduler;
+    private final AsyncConfigurer asyncConfigurer;
+
+    public FlowService(List<VulnerabilityScanner> scanners,
+                       ProjectNameGenerator projectNameGenerator,
+                       ResultsService resultsService,
+                       FlowProperties flowProperties,
+                       @Qualifier("vulnerabilityScanner") AsyncTaskExecutor scannerExecutor,
+                       @Qualifier("scanCompletion") TaskScheduler timeoutScheduler,
+                       AsyncConfigurer asyncConfigurer) {
+        this.scanners = scanners;
+        this.projectNameGenerator = projectNameGenerator;
+        this.resultsService = resultsService;
+        this.flowProperties = flowProperties;
+        this.scannerExecutor = scannerExecutor;
+        this.timeoutScheduler = timeoutScheduler;
+        this.asyncConfigurer = asyncConfigurer;
+    }
 
     /**
      * Main entry point for the automation process initiated by webhooks.
@@ -34,19 +73,136 @@ public class FlowService {
         String effectiveProjectName = projectNameGenerator.determineProjectName(scanRequest);
         scanRequest.setProject(effectiveProjectName);
         List<VulnerabilityScanner> enabledScanners = getEnabledScanners(scanRequest);
-        runScanRequest(scanRequest, enabledScanners);
+        if (flowProperties != null && flowProperties.isParallelScanners() && enabledScanners.size() > 1) {
+            runScanRequestInParallel(scanRequest, enabledScanners);
+        } else {
+            runScanRequest(scanRequest, enabledScanners);
+        }
     }
 
+    /**
+     * Results are published once every scanner has completed. Scanners that track their scans asynchronously
+     * (see {@link VulnerabilityScanner#scanAsync(ScanRequest)}) release the webhook thread right after submission.
+     */
     private void runScanRequest(ScanRequest scanRequest, List<VulnerabilityScanner> scanners) {
-        ScanResults combinedResults = new ScanResults();
+        List<CompletableFuture<ScanResults>> scanFutures = scanners.stream()
+                .map(scanner -> scanner.scanAsync(scanRequest))
+                .collect(Collectors.toList());
+
+        CompletableFuture<Void> allScans = CompletableFuture.allOf(scanFutures.toArray(new CompletableFuture[0]));
+        if (allScans.isDone()) {
+            //Scanned synchronously: publish on the webhook thread, failures propagate as before
+            publishCombinedResults(scanRequest, scanFutures);
+        } else {
+            allScans.thenRun(() -> publishCombinedResults(scanRequest, scanFutures))
+                    .whenComplete((v, e) -> handleAsyncFailure(scanRequest, e));
+        }
+    }
 
-        scanners.forEach(scanner -> {
-            ScanResults scanResults = scanner.scan(scanRequest);
-            combinedResults.mergeWith(scanResults);
-        });
+    private void publishCombinedResults(ScanRequest scanRequest, List<CompletableFuture<ScanResults>> scanFutures) {
+        ScanResults combinedResults = new ScanResults();
+        scanFutures.forEach(scanFuture -> combinedResults.mergeWith(scanFuture.join()));
         resultsService.publishCombinedResults(scanRequest, combinedResults);
     }
 
+    /**
+     * Submits every scanner to the vulnerabilityScanner executor and merges the results as they complete.
+     * A scanner that fails or exceeds {@link FlowProperties#getScannerTimeout()} is left out of the combined
+     * results, so that a single slow engine doesn't hold the publishing of the others. A timed out scanner that is
+     * still running on its executor thread is interrupted; scans already handed over to a tracker (e.g. the
+     * {@link com.checkmarx.flow.sastscanning.ScanCompletionTracker}) stay tracked until their own timeout.
+     */
+    private void runScanRequestInParallel(ScanRequest scanRequest, List<VulnerabilityScanner> scanners) {
+        ScanResults combinedResults = new ScanResults();
+        Map<String, String> loggingContext = MDC.getCopyOfContextMap();
+
+        List<CompletableFuture<Void>> mergeFutures = scanners.stream()
+                .map(scanner -> submitScan(scanner, scanRequest, loggingContext)
+                        .handle((scanResults, e) -> {
+                            if (e != null) {
+                                log.error("{} did not complete for project {}, its results will not be published",
+                                        scanner.getClass().getSimpleName(), scanRequest.getProject(), e);
+                            } else {
+                                synchronized (combinedResults) {
+                                    combinedResults.mergeWith(scanResults);
+                                }
+                            }
+                            return (Void) null;
+                        }))
+                .collect(Collectors.toList());
+
+        //Async: the last merge may run on the timeout scheduler thread, which must not be held by the publishing
+        CompletableFuture.allOf(mergeFutures.toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> resultsService.publishCombinedResults(scanRequest, combinedResults), scannerExecutor)
+                .whenComplete((v, e) -> handleAsyncFailure(scanRequest, e));
+    }
+
+    /**
+     * @return future of the scan results, completed exceptionally with a {@link TimeoutException} if the scanner
+     * exceeds {@link FlowProperties#getScannerTimeout()}. The timeout starts when the scan starts, so that a scan
+     * waiting for a free executor thread doesn't time out before it has run.
+     */
+    private CompletableFuture<ScanResults> submitScan(VulnerabilityScanner scanner, ScanRequest scanRequest, Map<String, String> loggingContext) {
+        CompletableFuture<ScanResults> scanFuture = new CompletableFuture<>();
+        AtomicReference<Future<?>> scanTask = new AtomicReference<>();
+        scanTask.set(scannerExecutor.submit(() -> {
+            Map<String, String> threadContext = MDC.getCopyOfContextMap();
+            try {
+                if (loggingContext != null) {
+                    MDC.setContextMap(loggingContext);
+                }
+                scheduleTimeout(scanner, scanFuture, scanTask);
+                log.info("Submitting {} scan for project {}", scanner.getClass().getSimpleName(), scanRequest.getProject());
+                scanner.scanAsync(scanRequest).whenComplete((scanResults, e) -> {
+                    if (e != null) {
+                        scanFuture.completeExceptionally(e);
+                    } else {
+                        scanFuture.complete(scanResults);
+                    }
+                });
+            } catch (RuntimeException e) {
+                scanFuture.completeExceptionally(e);
+            } finally {
+                //Restore rather than clear, in case the executor runs the task on the calling thread
+                if (threadContext != null) {
+                    MDC.setContextMap(threadContext);
+                } else {
+                    MDC.clear();
+                }
+            }
+        }));
+        return scanFuture;
+    }
+
+    private void scheduleTimeout(VulnerabilityScanner scanner, CompletableFuture<ScanResults> scanFuture, AtomicReference<Future<?>> scanTask) {
+        Duration timeout = Duration.ofMinutes(flowProperties.getScannerTimeout());
+        ScheduledFuture<?> timeoutTask = timeoutScheduler.schedule(() -> {
+            if (scanFuture.completeExceptionally(new TimeoutException(String.format("%s exceeded the timeout of %d minutes",
+                    scanner.getClass().getSimpleName(), timeout.toMinutes())))) {
+                //Frees the executor thread of a scanner that is still scanning synchronously
+                Optional.ofNullable(scanTask.get()).ifPresent(task -> task.cancel(true));
+            }
+        }, Instant.now().plus(timeout));
+        scanFuture.whenComplete((scanResults, e) -> timeoutTask.cancel(false));
+    }
+
+    /**
+     * Hands the failure of a publish that completed after {@link #initiateAutomation(ScanRequest)} had returned to the
+     * same handler as the exceptions thrown by the method itself.
+     */
+    private void handleAsyncFailure(ScanRequest scanRequest, Throwable e) {
+        if (e == null) {
+            return;
+        }
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        AsyncUncaughtExceptionHandler handler = asyncConfigurer == null ? null : asyncConfigurer.getAsyncUncaughtExceptionHandler();
+        if (handler != null) {
+            handler.handleUncaughtException(cause, INITIATE_AUTOMATION, scanRequest);
+        } else {
+            log.error("Error occurred while running scans for project {}", scanRequest.getProject(), cause);
+        }
+    }
+
     private List<VulnerabilityScanner> getEnabledScanners(ScanRequest scanRequest) {
         List<VulnerabilityScanner> enabledScanners = new ArrayList<>();
 
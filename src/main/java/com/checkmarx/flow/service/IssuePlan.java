@@ -0,0 +1,33 @@
+package com.checkmarx.flow.service;
+
+import com.checkmarx.flow.dto.Issue;
+import com.checkmarx.flow.dto.IssueUpdate;
+import com.checkmarx.sdk.dto.ScanResults;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes needed to bring the issues of a custom issue tracker in line with the scan results, by issue key.
+ * Computing the plan doesn't write anything to the tracker.
+ */
+@Getter
+class IssuePlan {
+
+    private final Map<String, ScanResults.XIssue> issuesToCreate = new LinkedHashMap<>();
+    private final Map<String, IssueUpdate> issuesToUpdate = new LinkedHashMap<>();
+
+    /**
+     * Issues whose findings all became false positives, updated to list them before being closed.
+     */
+    private final Map<String, IssueUpdate> falsePositivesToUpdate = new LinkedHashMap<>();
+    private final Map<String, Issue> issuesToClose = new LinkedHashMap<>();
+
+    /**
+     * Keys of the findings that don't need any change, e.g. because they are marked as false positives.
+     */
+    private final List<String> skippedKeys = new ArrayList<>();
+}
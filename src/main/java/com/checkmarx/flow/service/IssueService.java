@@ -1,22 +1,38 @@
 package com.checkmarx.flow.service;
 
 import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.flow.custom.BatchIssueTracker;
 import com.checkmarx.flow.custom.IssueTracker;
 import com.checkmarx.flow.dto.BugTracker;
 import com.checkmarx.flow.dto.Issue;
+import com.checkmarx.flow.dto.IssueOutcome;
+import com.checkmarx.flow.dto.IssueUpdate;
+import com.checkmarx.flow.dto.PublishPlan;
 import com.checkmarx.flow.dto.ScanRequest;
 import com.checkmarx.flow.exception.MachinaException;
 import com.checkmarx.flow.exception.MachinaRuntimeException;
 import com.checkmarx.flow.utils.ScanUtils;
 import com.checkmarx.sdk.dto.ScanResults;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
+import org.slf4j.MDC;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  *  Issue manipulation logic for issue trackers of type {@link BugTracker.Type#CUSTOM}.
@@ -27,6 +43,8 @@ public class IssueService implements ApplicationContextAware {
     private ApplicationContext context;
     private static final Logger log = org.slf4j.LoggerFactory.getLogger(IssueService.class);
     private final FlowProperties properties;
+    private final Executor executor;
+    private final Map<String, TrackerThrottle> throttles = new ConcurrentHashMap<>();
 
     public ApplicationContext getContext() {
         return context;
@@ -37,18 +55,18 @@ public class IssueService implements ApplicationContextAware {
         this.context = context;
     }
 
-    public IssueService(FlowProperties properties) {
+    public IssueService(FlowProperties properties, @Qualifier("issueTracker") Executor executor) {
         this.properties = properties;
+        this.executor = executor;
     }
 
     /**
-     * Create a map of custom issues
+     * Create a map of custom issues, consuming the issue stream of the tracker
      */
-    private Map<String, Issue> getIssueMap(IssueTracker tracker, List<Issue> issues, ScanRequest request) {
+    private Map<String, Issue> getIssueMap(IssueTracker tracker, ScanRequest request) throws MachinaException {
         Map<String, Issue> issueMap = new HashMap<>();
-        for (Issue issue : issues) {
-            String key = tracker.getIssueKey(issue, request);
-            issueMap.put(key, issue);
+        try (Stream<Issue> issues = tracker.streamIssues(request)) {
+            issues.forEach(issue -> issueMap.put(tracker.getIssueKey(issue, request), issue));
         }
         return issueMap;
     }
@@ -77,115 +95,324 @@ public class IssueService implements ApplicationContextAware {
     }
 
     Map<String, List<String>> process(ScanResults results, ScanRequest request) throws MachinaException {
-        Map<String, ScanResults.XIssue> xMap;
-        Map<String, Issue> iMap;
-        List<String> newIssues = new ArrayList<>();
-        List<String> updatedIssues = new ArrayList<>();
-        List<String> closedIssues = new ArrayList<>();
+        String customBean = getCustomBean(request);
+        IssueTracker tracker = getTracker(customBean);
+        tracker.init(request, results);
+
+        log.info("Processing Issues with custom bean {}", customBean);
+
+        Map<String, List<String>> issuesMap;
+        try {
+            long start = System.currentTimeMillis();
+            IssuePlan plan = getPlan(tracker, results, request);
+            PublishPlanMetrics.record(toPublishPlan(customBean, plan, System.currentTimeMillis() - start), false);
+            issuesMap = execute(plan, BatchIssueTracker.of(tracker), customBean, request);
+        } catch (MachinaException | RuntimeException e) {
+            //Trackers release their resources and write what was published so far in complete
+            completeAfterFailure(tracker, request, results, e);
+            throw e;
+        }
+
+        tracker.complete(request, results);
+
+        return issuesMap;
+    }
+
+    private static void completeAfterFailure(IssueTracker tracker, ScanRequest request, ScanResults results, Exception failure) {
+        try {
+            tracker.complete(request, results);
+        } catch (MachinaException | RuntimeException e) {
+            log.error("Error occurred while completing the publish after a failure", e);
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Compute which issues {@link #process} would create, update and close, without writing to the tracker.
+     */
+    PublishPlan getPublishPlan(ScanResults results, ScanRequest request) throws MachinaException {
+        String customBean = getCustomBean(request);
+        IssueTracker tracker = getTracker(customBean);
+        tracker.initPlanning(request, results);
+
+        long start = System.currentTimeMillis();
+        IssuePlan plan = getPlan(tracker, results, request);
+        PublishPlan publishPlan = toPublishPlan(customBean, plan, System.currentTimeMillis() - start);
+        PublishPlanMetrics.record(publishPlan, true);
+        return publishPlan;
+    }
+
+    private static String getCustomBean(ScanRequest request) throws MachinaException {
         BugTracker bugTracker = request.getBugTracker();
         String customBean = bugTracker.getCustomBean();
         if (!bugTracker.getType().equals(BugTracker.Type.CUSTOM) && !ScanUtils.empty(customBean)) {
             throw new MachinaException("A valid custom bean must be used here.");
         }
+        return customBean;
+    }
 
+    private IssueTracker getTracker(String customBean) {
         try {
-            IssueTracker tracker = (IssueTracker) context.getBean(customBean);
-            tracker.init(request, results);
-            String fpLabel = tracker.getFalsePositiveLabel();
+            return (IssueTracker) context.getBean(customBean);
+        } catch (BeansException e){
+            log.error("Specified bug tracker bean was not found or properly loaded.", e);
+            throw new MachinaRuntimeException();
+        } catch (ClassCastException e){
+            log.error("Bean must implement the IssueTracker Interface", e);
+            throw new MachinaRuntimeException();
+        }
+    }
 
-            log.info("Processing Issues with custom bean {}", customBean);
+    private static PublishPlan toPublishPlan(String customBean, IssuePlan plan, long planningTime) {
+        Set<String> issuesToUpdate = new LinkedHashSet<>(plan.getIssuesToUpdate().keySet());
+        issuesToUpdate.addAll(plan.getFalsePositivesToUpdate().keySet());
+        return PublishPlan.builder()
+                .bugTracker(customBean)
+                .issuesToCreate(new ArrayList<>(plan.getIssuesToCreate().keySet()))
+                .issuesToUpdate(new ArrayList<>(issuesToUpdate))
+                .issuesToClose(new ArrayList<>(plan.getIssuesToClose().keySet()))
+                .skipped(new ArrayList<>(plan.getSkippedKeys()))
+                .planningTime(planningTime)
+                .build();
+    }
 
-            List<Issue> issues = tracker.getIssues(request);
-            if(issues == null){
-                issues = Collections.emptyList();
-            }
-            xMap = this.getXIssueMap(tracker, results, request);
-            iMap = this.getIssueMap(tracker, issues, request);
+    /**
+     * Compare the scan results with the issues in the tracker and decide which issues to create, update and close.
+     * Only reads from the tracker.
+     */
+    private IssuePlan getPlan(IssueTracker tracker, ScanResults results, ScanRequest request) throws MachinaException {
+        IssuePlan plan = new IssuePlan();
+        String fpLabel = tracker.getFalsePositiveLabel();
 
-            for (Map.Entry<String, ScanResults.XIssue> xIssue : xMap.entrySet()) {
-                try {
-                    String fileUrl;
-                    ScanResults.XIssue currentIssue = xIssue.getValue();
-
-                    /*Issue already exists -> update and comment*/
-                    if (iMap.containsKey(xIssue.getKey())) {
-                        Issue i = iMap.get(xIssue.getKey());
-                        if(xIssue.getValue().isAllFalsePositive()) {
-                            //All issues are false positive, so issue should be closed
-                            Issue fpIssue;
-                            log.debug("All issues are false positives");
-
-                            if(properties.isListFalsePositives()) { //Update the ticket if flag is set
-                                log.debug("Issue is being updated to reflect false positive references.  Updating issue with key {}", xIssue.getKey());
-                                tracker.updateIssue(i, currentIssue, request);
-                            }
-                            if (tracker.isIssueOpened(i, request)) {
-                                /*Close the issue if in an open state*/
-                                tracker.closeIssue(i, request);
-                                closedIssues.add(i.getId());
-                            }
-
-                        }
-                        else if (!i.getLabels().contains(fpLabel)) { /*Ignore any with label indicating false positive*/
-                            log.info("Issue still exists.  Updating issue with key {}", xIssue.getKey());
-                            fileUrl = ScanUtils.getFileUrl(request, currentIssue.getFilename());
-                            currentIssue.setGitUrl(fileUrl);
-                            Issue updatedIssue = tracker.updateIssue(i, currentIssue, request);
-                            if (updatedIssue != null) {
-                                updatedIssues.add(updatedIssue.getId());
-                                log.debug("Update completed for issue #{}", updatedIssue.getId());
-                            }
-                        } else {
-                            log.info("Skipping issue marked as false positive with key {}", xIssue.getKey());
-                        }
-                    } else {
-                        /*Create the new issue*/
-                        if(!xIssue.getValue().isAllFalsePositive()) {
-                            fileUrl = ScanUtils.getFileUrl(request, currentIssue.getFilename());
-                            xIssue.getValue().setGitUrl(fileUrl);
-                            log.info("Creating new issue with key {}", xIssue.getKey());
-                            Issue newIssue = tracker.createIssue(xIssue.getValue(), request);
-                            if (newIssue != null) {
-                                newIssues.add(newIssue.getId());
-                                log.info("New issue created. #{}", newIssue.getId());
-                            }
-                        }
+        Map<String, ScanResults.XIssue> xMap = this.getXIssueMap(tracker, results, request);
+        Map<String, Issue> iMap = this.getIssueMap(tracker, request);
+
+        for (Map.Entry<String, ScanResults.XIssue> xIssue : xMap.entrySet()) {
+            String fileUrl;
+            ScanResults.XIssue currentIssue = xIssue.getValue();
+
+            /*Issue already exists -> update and comment*/
+            if (iMap.containsKey(xIssue.getKey())) {
+                Issue i = iMap.get(xIssue.getKey());
+                if(xIssue.getValue().isAllFalsePositive()) {
+                    //All issues are false positive, so issue should be closed
+                    log.debug("All issues are false positives");
+
+                    if(properties.isListFalsePositives()) { //Update the ticket if flag is set
+                        log.debug("Issue is being updated to reflect false positive references.  Updating issue with key {}", xIssue.getKey());
+                        plan.getFalsePositivesToUpdate().put(xIssue.getKey(), new IssueUpdate(i, currentIssue));
+                    }
+                    if (tracker.isIssueOpened(i, request)) {
+                        /*Close the issue if in an open state*/
+                        plan.getIssuesToClose().put(xIssue.getKey(), i);
+                    } else if (!properties.isListFalsePositives()) {
+                        plan.getSkippedKeys().add(xIssue.getKey());
                     }
-                } catch (HttpClientErrorException e) {
-                    log.error("Error occurred while processing issue with key {}", xIssue.getKey(), e);
                 }
+                else if (!i.getLabels().contains(fpLabel)) { /*Ignore any with label indicating false positive*/
+                    log.info("Issue still exists.  Updating issue with key {}", xIssue.getKey());
+                    fileUrl = ScanUtils.getFileUrl(request, currentIssue.getFilename());
+                    currentIssue.setGitUrl(fileUrl);
+                    plan.getIssuesToUpdate().put(xIssue.getKey(), new IssueUpdate(i, currentIssue));
+                } else {
+                    log.info("Skipping issue marked as false positive with key {}", xIssue.getKey());
+                    plan.getSkippedKeys().add(xIssue.getKey());
+                }
+            } else if(!xIssue.getValue().isAllFalsePositive()) {
+                /*Create the new issue*/
+                fileUrl = ScanUtils.getFileUrl(request, currentIssue.getFilename());
+                xIssue.getValue().setGitUrl(fileUrl);
+                log.info("Creating new issue with key {}", xIssue.getKey());
+                plan.getIssuesToCreate().put(xIssue.getKey(), currentIssue);
+            } else {
+                plan.getSkippedKeys().add(xIssue.getKey());
             }
+        }
 
-            /*Check if an issue exists in GitLab but not within results and close if not*/
-            for (Map.Entry<String, Issue> issueMap : iMap.entrySet()) {
-                String key = issueMap.getKey();
-                Issue issue = issueMap.getValue();
-                try {
-                    if (!xMap.containsKey(key) && tracker.isIssueOpened(issue, request)) {
-                        /*Close the issue*/
-                        tracker.closeIssue(issue, request);
-                        closedIssues.add(issue.getId());
-                        log.info("Closing issue #{} with key {}", issue.getId(), key);
+        /*Check if an issue exists in GitLab but not within results and close if not*/
+        for (Map.Entry<String, Issue> issueMap : iMap.entrySet()) {
+            String key = issueMap.getKey();
+            Issue issue = issueMap.getValue();
+            if (!xMap.containsKey(key) && tracker.isIssueOpened(issue, request)) {
+                plan.getIssuesToClose().put(key, issue);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Run the plan on the issueTracker executor, within the limits configured for the tracker bean.
+     * Creates and updates run first; closes start once the false positive updates are done.
+     * Items that failed don't stop the others: HTTP client errors are logged, other errors are reported
+     * together once the whole plan was run.
+     *
+     * @return ids of the new, updated and closed issues
+     */
+    private Map<String, List<String>> execute(IssuePlan plan, BatchIssueTracker tracker, String customBean,
+                                              ScanRequest request) throws MachinaException {
+        List<String> newIssues = Collections.synchronizedList(new ArrayList<>());
+        List<String> updatedIssues = Collections.synchronizedList(new ArrayList<>());
+        List<String> closedIssues = Collections.synchronizedList(new ArrayList<>());
+        Map<String, String> errors = new ConcurrentHashMap<>();
+        TrackerThrottle throttle = getThrottle(customBean);
+        int batchSize = Math.max(1, tracker.getBatchSize());
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        tasks.addAll(submitInBatches(plan.getIssuesToCreate(), batchSize, throttle, errors,
+                batch -> tracker.createIssues(batch, request),
+                (key, outcome) -> {
+                    Issue newIssue = outcome.getIssue();
+                    if (newIssue != null) {
+                        newIssues.add(newIssue.getId());
+                        log.info("New issue created. #{}", newIssue.getId());
+                    }
+                }));
+        tasks.addAll(submitInBatches(plan.getIssuesToUpdate(), batchSize, throttle, errors,
+                batch -> tracker.updateIssues(batch, request),
+                (key, outcome) -> {
+                    Issue updatedIssue = outcome.getIssue();
+                    if (updatedIssue != null) {
+                        updatedIssues.add(updatedIssue.getId());
+                        log.debug("Update completed for issue #{}", updatedIssue.getId());
                     }
-                } catch (HttpClientErrorException e) {
-                    log.error("Error occurred while processing issue with key {}", key, e);
+                }));
+        List<CompletableFuture<Void>> falsePositiveTasks = submitInBatches(plan.getFalsePositivesToUpdate(), batchSize, throttle, errors,
+                batch -> tracker.updateIssues(batch, request),
+                (key, outcome) -> log.debug("False positive references updated for issue with key {}", key));
+        tasks.addAll(falsePositiveTasks);
+        join(falsePositiveTasks);
+
+        tasks.addAll(submitInBatches(plan.getIssuesToClose(), batchSize, throttle, errors,
+                batch -> tracker.closeIssues(batch, request),
+                (key, outcome) -> {
+                    Issue closedIssue = plan.getIssuesToClose().get(key);
+                    closedIssues.add(closedIssue.getId());
+                    log.info("Closing issue #{} with key {}", closedIssue.getId(), key);
+                }));
+        join(tasks);
+
+        if (!errors.isEmpty()) {
+            String details = errors.entrySet().stream()
+                    .map(error -> error.getKey() + ": " + error.getValue())
+                    .collect(Collectors.joining("\n"));
+            throw new MachinaException(String.format("Failed to process %d issues with custom bean %s:%n%s",
+                    errors.size(), customBean, details));
+        }
+
+        Map<String, List<String>> issuesMap = new HashMap<>();
+        issuesMap.put("new", new ArrayList<>(newIssues));
+        issuesMap.put("updated", new ArrayList<>(updatedIssues));
+        issuesMap.put("closed", new ArrayList<>(closedIssues));
+        return issuesMap;
+    }
+
+    /**
+     * Pass the items to the tracker in batches of at most batchSize items, each batch as a separate task.
+     * The calling thread waits for the tracker limits before submitting a batch, so the executor threads never
+     * block on them. Successful outcomes are passed to the consumer along with the issue key of the item.
+     */
+    private <T> List<CompletableFuture<Void>> submitInBatches(Map<String, T> items, int batchSize, TrackerThrottle throttle,
+                                                              Map<String, String> errors, BatchOperation<T> operation,
+                                                              BiConsumer<String, IssueOutcome> onSuccess) {
+        Map<String, String> loggingContext = MDC.getCopyOfContextMap();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        List<String> keys = new ArrayList<>(items.keySet());
+        for (List<String> batchKeys : Lists.partition(keys, batchSize)) {
+            List<T> batch = new ArrayList<>();
+            batchKeys.forEach(key -> batch.add(items.get(key)));
+            throttle.acquire();
+            tasks.add(CompletableFuture.runAsync(() -> {
+                if (loggingContext != null) {
+                    MDC.setContextMap(loggingContext);
+                }
+                try {
+                    handleOutcomes(batchKeys, operation.submit(batch), errors, onSuccess);
+                } catch (MachinaException | RuntimeException e) {
+                    batchKeys.forEach(key -> handleFailure(key, e, errors));
+                } finally {
+                    throttle.release();
+                    MDC.clear();
                 }
+            }, executor));
+        }
+        return tasks;
+    }
+
+    private static void handleOutcomes(List<String> keys, List<IssueOutcome> outcomes, Map<String, String> errors,
+                                       BiConsumer<String, IssueOutcome> onSuccess) {
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            IssueOutcome outcome = i < outcomes.size() ? outcomes.get(i) : null;
+            if (outcome == null) {
+                log.warn("Issue tracker returned no outcome for issue with key {}", key);
+            } else if (outcome.isSuccess()) {
+                onSuccess.accept(key, outcome);
+            } else {
+                handleFailure(key, outcome.getError(), errors);
             }
+        }
+    }
 
-            Map<String, List<String>> issuesMap = new HashMap<>();
-            issuesMap.put("new", newIssues);
-            issuesMap.put("updated", updatedIssues);
-            issuesMap.put("closed", closedIssues);
+    private static void handleFailure(String key, Exception error, Map<String, String> errors) {
+        log.error("Error occurred while processing issue with key {}", key, error);
+        if (!(error instanceof HttpClientErrorException)) {
+            errors.put(key, StringUtils.defaultIfEmpty(error.getMessage(), error.getClass().getSimpleName()));
+        }
+    }
 
-            tracker.complete(request, results);
+    private static void join(List<CompletableFuture<Void>> tasks) {
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+    }
 
-            return issuesMap;
-        } catch (BeansException e){
-            log.error("Specified bug tracker bean was not found or properly loaded.", e);
-            throw new MachinaRuntimeException();
-        } catch (ClassCastException e){
-            log.error("Bean must implement the IssueTracker Interface", e);
-            throw new MachinaRuntimeException();
+    /**
+     * @return the throttle shared by all the publishes of the bean if it has configured limits, otherwise a throttle
+     * for this publish only that sends one request at a time, as publishes did before limits existed
+     */
+    private TrackerThrottle getThrottle(String customBean) {
+        Optional<FlowProperties.IssueTrackerLimits> configuredLimits = properties.getIssueTrackerLimits().entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(customBean))
+                .map(Map.Entry::getValue)
+                .findFirst();
+        if (!configuredLimits.isPresent()) {
+            FlowProperties.IssueTrackerLimits publishLimits = new FlowProperties.IssueTrackerLimits();
+            publishLimits.setMaxConcurrentRequests(1);
+            return new TrackerThrottle(publishLimits);
+        }
+        return throttles.computeIfAbsent(customBean, bean -> new TrackerThrottle(configuredLimits.get()));
+    }
+
+    @FunctionalInterface
+    private interface BatchOperation<T> {
+        List<IssueOutcome> submit(List<T> batch) throws MachinaException;
+    }
+
+    /**
+     * Concurrency and rate limits of the publishes of a custom bean.
+     */
+    private static class TrackerThrottle {
+        private final Semaphore permits;
+        private final RateLimiter rateLimiter;
+
+        TrackerThrottle(FlowProperties.IssueTrackerLimits limits) {
+            Integer maxConcurrentRequests = limits.getMaxConcurrentRequests();
+            permits = maxConcurrentRequests != null ? new Semaphore(Math.max(1, maxConcurrentRequests)) : null;
+            Double requestsPerSecond = limits.getRequestsPerSecond();
+            rateLimiter = requestsPerSecond != null && requestsPerSecond > 0 ? RateLimiter.create(requestsPerSecond) : null;
+        }
+
+        void acquire() {
+            if (permits != null) {
+                permits.acquireUninterruptibly();
+            }
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+        }
+
+        void release() {
+            if (permits != null) {
+                permits.release();
+            }
         }
     }
 }
@@ -0,0 +1,82 @@
+package com.checkmarx.flow.service;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.checkmarx.flow.config.JiraProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Local index of the Jira issues tracked by CxFlow, keyed by the JQL that selects them (project, issue type and
+ * tracking labels). After the first full retrieval only issues updated since the previous sync are requested.
+ * A full retrieval is repeated every {@link JiraProperties#getIssueIndexFullSyncInterval()} minutes to drop issues
+ * that were deleted or no longer carry the tracking labels.
+ * Queries that aren't used for {@link JiraProperties#getIssueIndexExpiry()} minutes are dropped, and at most
+ * {@link JiraProperties#getIssueIndexSize()} queries are indexed.
+ */
+@Slf4j
+class JiraIssueIndex {
+
+    /* Extra minutes requested in a delta query, to cover clock differences and the minute precision of JQL dates */
+    private static final long DELTA_MARGIN_MINUTES = 2;
+
+    private final JiraProperties jiraProperties;
+    private final Cache<String, Entry> entries;
+
+    JiraIssueIndex(JiraProperties jiraProperties) {
+        this.jiraProperties = jiraProperties;
+        this.entries = CacheBuilder.newBuilder()
+                .expireAfterAccess(jiraProperties.getIssueIndexExpiry(), TimeUnit.MINUTES)
+                .maximumSize(jiraProperties.getIssueIndexSize())
+                .build();
+    }
+
+    /**
+     * @param jql    query selecting the tracked issues
+     * @param search executes a JQL query and returns all the matching issues
+     * @return the tracked issues, in the order they were first retrieved
+     */
+    List<Issue> getIssues(String jql, Function<String, List<Issue>> search) {
+        Entry entry = entries.getIfPresent(jql);
+        if (entry == null) {
+            entry = entries.asMap().computeIfAbsent(jql, key -> new Entry());
+        }
+        synchronized (entry) {
+            long now = System.currentTimeMillis();
+            long fullSyncInterval = TimeUnit.MINUTES.toMillis(jiraProperties.getIssueIndexFullSyncInterval());
+            if (entry.lastFullSync == 0 || now - entry.lastFullSync >= fullSyncInterval) {
+                log.debug("Full sync of the Jira issue index for query: {}", jql);
+                entry.issues.clear();
+                putAll(entry, search.apply(jql));
+                entry.lastFullSync = now;
+            } else {
+                long minutes = TimeUnit.MILLISECONDS.toMinutes(now - entry.lastSync) + DELTA_MARGIN_MINUTES;
+                String deltaJql = String.format("(%s) and updated >= \"-%dm\"", jql, minutes);
+                List<Issue> updatedIssues = search.apply(deltaJql);
+                log.debug("Delta sync of the Jira issue index returned {} updated issues", updatedIssues.size());
+                putAll(entry, updatedIssues);
+            }
+            entry.lastSync = now;
+            return new ArrayList<>(entry.issues.values());
+        }
+    }
+
+    private static void putAll(Entry entry, List<Issue> issues) {
+        for (Issue issue : issues) {
+            entry.issues.put(issue.getKey(), issue);
+        }
+    }
+
+    private static class Entry {
+        private final Map<String, Issue> issues = new LinkedHashMap<>();
+        private long lastSync;
+        private long lastFullSync;
+    }
+}
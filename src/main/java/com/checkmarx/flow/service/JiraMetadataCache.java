@@ -0,0 +1,111 @@
+package com.checkmarx.flow.service;
+
+import com.atlassian.jira.rest.client.api.domain.IssueType;
+import com.atlassian.jira.rest.client.api.domain.SecurityLevel;
+import com.atlassian.jira.rest.client.api.domain.Transition;
+import com.checkmarx.flow.config.JiraProperties;
+import com.checkmarx.flow.exception.JiraClientRunTimeException;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Jira metadata that rarely changes and is needed for most of the published issues: custom field ids, issue types,
+ * security levels and the transitions available from a status. Entries expire after jira.metadata-cache-ttl
+ * minutes; every kind of metadata holds at most jira.metadata-cache-size entries.
+ */
+@Component
+@Slf4j
+public class JiraMetadataCache {
+
+    private final Cache<String, Map<String, String>> fieldIds;
+    private final Cache<String, List<IssueType>> issueTypes;
+    private final Cache<String, Map<String, SecurityLevel>> securityLevels;
+    private final Cache<String, List<Transition>> transitions;
+
+    public JiraMetadataCache(JiraProperties jiraProperties) {
+        fieldIds = newCache(jiraProperties);
+        issueTypes = newCache(jiraProperties);
+        securityLevels = newCache(jiraProperties);
+        transitions = newCache(jiraProperties);
+    }
+
+    /**
+     * @return custom field ids by field name, for the project and issue type.
+     */
+    Map<String, String> getFieldIds(String projectKey, String issueType, Supplier<Map<String, String>> loader) {
+        return get(fieldIds, getKey(projectKey, issueType), loader);
+    }
+
+    List<IssueType> getIssueTypes(String projectKey, Supplier<List<IssueType>> loader) {
+        return get(issueTypes, projectKey, loader);
+    }
+
+    /**
+     * @return security levels by name, for the project and issue type.
+     */
+    Map<String, SecurityLevel> getSecurityLevels(String projectKey, String issueType, Supplier<Map<String, SecurityLevel>> loader) {
+        return get(securityLevels, getKey(projectKey, issueType), loader);
+    }
+
+    /**
+     * @return transitions available for an issue of the issue type that is in the status.
+     */
+    List<Transition> getTransitions(String projectKey, String issueType, String status, Supplier<List<Transition>> loader) {
+        return get(transitions, getKey(projectKey, issueType, status), loader);
+    }
+
+    void invalidateTransitions(String projectKey, String issueType, String status) {
+        transitions.invalidate(getKey(projectKey, issueType, status));
+    }
+
+    public void invalidateAll() {
+        fieldIds.invalidateAll();
+        issueTypes.invalidateAll();
+        securityLevels.invalidateAll();
+        transitions.invalidateAll();
+        log.info("Jira metadata cache invalidated");
+    }
+
+    /**
+     * @return number of cached entries per kind of metadata.
+     */
+    public Map<String, Long> getSizes() {
+        return ImmutableMap.of(
+                "fieldIds", fieldIds.size(),
+                "issueTypes", issueTypes.size(),
+                "securityLevels", securityLevels.size(),
+                "transitions", transitions.size());
+    }
+
+    private static <V> Cache<String, V> newCache(JiraProperties jiraProperties) {
+        return CacheBuilder.newBuilder()
+                .expireAfterWrite(jiraProperties.getMetadataCacheTtl(), TimeUnit.MINUTES)
+                .maximumSize(jiraProperties.getMetadataCacheSize())
+                .build();
+    }
+
+    private static <V> V get(Cache<String, V> cache, String key, Supplier<V> loader) {
+        try {
+            return cache.get(key, loader::get);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            //Rethrow the loader's exception (e.g. RestClientException) as is
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new JiraClientRunTimeException("Error loading Jira metadata for " + key, e.getCause());
+        }
+    }
+
+    private static String getKey(String... parts) {
+        return String.join("|", parts);
+    }
+}
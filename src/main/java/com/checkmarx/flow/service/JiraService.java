@@ -3,17 +3,28 @@ package com.checkmarx.flow.service;
 import java.beans.ConstructorProperties;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -27,6 +38,8 @@ import com.atlassian.jira.rest.client.api.ProjectRestClient;
 import com.atlassian.jira.rest.client.api.RestClientException;
 import com.atlassian.jira.rest.client.api.SearchRestClient;
 import com.atlassian.jira.rest.client.api.domain.BasicIssue;
+import com.atlassian.jira.rest.client.api.domain.BulkOperationErrorResult;
+import com.atlassian.jira.rest.client.api.domain.BulkOperationResult;
 import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
 import com.atlassian.jira.rest.client.api.domain.CimProject;
 import com.atlassian.jira.rest.client.api.domain.Comment;
@@ -41,6 +54,7 @@ import com.atlassian.jira.rest.client.api.domain.Transition;
 import com.atlassian.jira.rest.client.api.domain.User;
 import com.atlassian.jira.rest.client.api.domain.input.ComplexIssueInputFieldValue;
 import com.atlassian.jira.rest.client.api.domain.input.FieldInput;
+import com.atlassian.jira.rest.client.api.domain.input.IssueInput;
 import com.atlassian.jira.rest.client.api.domain.input.IssueInputBuilder;
 import com.atlassian.jira.rest.client.api.domain.input.TransitionInput;
 import com.atlassian.jira.rest.client.internal.async.CustomAsynchronousJiraRestClientFactory;
@@ -49,6 +63,8 @@ import com.checkmarx.flow.config.JiraProperties;
 import com.checkmarx.flow.constants.JiraConstants;
 import com.checkmarx.flow.constants.SCATicketingConstants;
 import com.checkmarx.flow.dto.BugTracker;
+import com.checkmarx.flow.dto.JiraPublishOutcome;
+import com.checkmarx.flow.dto.PublishPlan;
 import com.checkmarx.flow.dto.ScanDetails;
 import com.checkmarx.flow.dto.ScanRequest;
 import com.checkmarx.flow.dto.report.JiraTicketsReport;
@@ -57,11 +73,21 @@ import com.checkmarx.flow.exception.JiraClientRunTimeException;
 import com.checkmarx.flow.exception.MachinaRuntimeException;
 import com.checkmarx.flow.utils.ScanUtils;
 import com.checkmarx.sdk.dto.ScanResults;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import io.atlassian.util.concurrent.Promise;
+import io.micrometer.core.instrument.Metrics;
 
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 
@@ -78,14 +104,10 @@ public class JiraService {
     private final FlowProperties flowProperties;
     private final String parentUrl;
     private final String grandParentUrl;
-    private Map<String, ScanResults.XIssue> nonPublishedScanResultsMap = new HashMap<>();
-
-    private List<String> currentNewIssuesList = new ArrayList<>();
-    private List<String> currentUpdatedIssuesList = new ArrayList<>();
-    private List<String> currentClosedIssuesList = new ArrayList<>();
-
-    //Map used to store/retrieve custom field values
-    private Map<String, Map<String, String>> customFields = new HashMap<>();
+    private final Executor publishExecutor;
+    private final JiraIssueIndex issueIndex;
+    private final Cache<String, Map<String, Issue>> ancestorIssueMaps;
+    private final JiraMetadataCache metadataCache;
 
     private static final String LABEL_FIELD_TYPE = "labels";
     private static final String SECURITY_FIELD_TYPE = "security";
@@ -94,11 +116,27 @@ public class JiraService {
     private static final String CHILD_FIELD_TYPE = "child";
     private static final String CASCADE_PARENT_CHILD_DELIMITER  = ";";
     private static final int MAX_RESULTS_ALLOWED = 1000000;
-
-    @ConstructorProperties({"jiraProperties", "flowProperties"})
-    public JiraService(JiraProperties jiraProperties, FlowProperties flowProperties) {
+    private static final int MAX_BULK_CREATE_ISSUES = 50;
+    private static final String FINGERPRINT_LABEL_PREFIX = "cxflow-fingerprint:";
+    private static final int FINGERPRINT_LENGTH = 32;
+    //Checkmarx links point to the scan that reported the finding, so they change with every scan
+    private static final Pattern SCAN_ID_PARAM = Pattern.compile("([?&]scanid=)\\d+", Pattern.CASE_INSENSITIVE);
+    private static final String UPDATES_METRIC = "cxflow.jira.updates";
+    /*Fields used to reconcile the findings with the existing issues; project, issuetype, created and updated are required by the client's issue parser*/
+    private static final Set<String> SEARCH_FIELDS = ImmutableSet.of("key", "project", "issuetype", "summary", LABEL_FIELD_TYPE, "created", "updated", "status");
+
+    @ConstructorProperties({"jiraProperties", "flowProperties", "publishExecutor", "metadataCache"})
+    public JiraService(JiraProperties jiraProperties, FlowProperties flowProperties,
+                       @Qualifier("jiraPublish") Executor publishExecutor, JiraMetadataCache metadataCache) {
         this.jiraProperties = jiraProperties;
         this.flowProperties = flowProperties;
+        this.publishExecutor = publishExecutor;
+        this.metadataCache = metadataCache;
+        this.issueIndex = new JiraIssueIndex(jiraProperties);
+        this.ancestorIssueMaps = CacheBuilder.newBuilder()
+                .expireAfterWrite(Math.max(0, jiraProperties.getParentCacheTtl()), TimeUnit.MINUTES)
+                .maximumSize(Math.max(0, jiraProperties.getParentCacheSize()))
+                .build();
         parentUrl = jiraProperties.getParentUrl();
         grandParentUrl = jiraProperties.getGrandParentUrl();
     }
@@ -175,7 +213,17 @@ public class JiraService {
 
     private List<Issue> getIssues(ScanRequest request) {
         log.info("Executing getIssues API call");
-        List<Issue> issues = new ArrayList<>();
+        String jql = getJql(request);
+        if (jiraProperties.isIssueIndex()) {
+            return issueIndex.getIssues(jql, this::searchIssues);
+        }
+        return searchIssues(jql);
+    }
+
+    /**
+     * @return query for the issues tracked for the request, based on the project, issue type and tracking labels.
+     */
+    private String getJql(ScanRequest request) {
         String jql;
         BugTracker bugTracker = request.getBugTracker();
         /*Namespace/Repo/Branch provided*/
@@ -224,21 +272,33 @@ public class JiraService {
             log.error("Namespace/Repo/Branch or App must be provided in order to properly track ");
             throw new MachinaRuntimeException();
         }
+        return jql;
+    }
+
+    private List<Issue> searchIssues(String jql) {
         log.debug("jql query : {}", jql);
-        HashSet<String> fields = new HashSet<>();
-        Collections.addAll(fields, "key","project","issuetype","summary",LABEL_FIELD_TYPE,"created","updated","status");
-        
+        List<Issue> issues = new ArrayList<>();
 
-        SearchResult searchResults;
-        int totalResultsCount = MAX_RESULTS_ALLOWED;
         SearchRestClient searchClient = this.client.getSearchClient();
         //Retrieve JQL results through pagination (jira.max-jql-results per page -> default 50), don't allow less than 10.
         int maxJqlResultsPerPage = Integer.max(10, jiraProperties.getMaxJqlResults());
-        for ( int startAt = 0 ; startAt < totalResultsCount ; startAt += maxJqlResultsPerPage ) {
-            searchResults = searchClient.searchJql(jql, maxJqlResultsPerPage, startAt, fields).claim();
-            searchResults.getIssues().forEach(issues::add);
-            totalResultsCount = Integer.min(searchResults.getTotal(), MAX_RESULTS_ALLOWED);
+        SearchResult firstPage = searchClient.searchJql(jql, maxJqlResultsPerPage, 0, SEARCH_FIELDS).claim();
+        firstPage.getIssues().forEach(issues::add);
+        int totalResultsCount = Integer.min(firstPage.getTotal(), MAX_RESULTS_ALLOWED);
+
+        //The total is known after the first page, so the remaining pages are requested up to
+        //jira.max-concurrent-page-requests at a time and added in page order.
+        int maxPendingPages = Integer.max(1, jiraProperties.getMaxConcurrentPageRequests());
+        Deque<Promise<SearchResult>> pendingPages = new ArrayDeque<>();
+        int startAt = maxJqlResultsPerPage;
+        while (startAt < totalResultsCount || !pendingPages.isEmpty()) {
+            while (startAt < totalResultsCount && pendingPages.size() < maxPendingPages) {
+                pendingPages.add(searchClient.searchJql(jql, maxJqlResultsPerPage, startAt, SEARCH_FIELDS));
+                startAt += maxJqlResultsPerPage;
+            }
+            pendingPages.poll().claim().getIssues().forEach(issues::add);
         }
+        log.debug("Retrieved {} issues in {} pages", issues.size(), (totalResultsCount + maxJqlResultsPerPage - 1) / maxJqlResultsPerPage);
         return issues;
     }
 
@@ -249,10 +309,11 @@ public class JiraService {
     private IssueType getIssueType(String projectKey, String type) throws RestClientException, JiraClientException {
         List<String> issueTypesList = new ArrayList<>();
 
-        Project project = this.projectClient.getProject(projectKey).claim();
-        Iterator<IssueType> issueTypes = project.getIssueTypes().iterator();
-        while (issueTypes.hasNext()) {
-            IssueType it = issueTypes.next();
+        List<IssueType> projectIssueTypes = metadataCache.getIssueTypes(projectKey, () -> {
+            Project project = this.projectClient.getProject(projectKey).claim();
+            return Lists.newArrayList(project.getIssueTypes());
+        });
+        for (IssueType it : projectIssueTypes) {
             issueTypesList.add(it.getName());
             log.debug("getIssueType iterator: {}", it.getName());
             if (it.getName().equals(type)) {
@@ -270,100 +331,103 @@ public class JiraService {
     }
 
     private String createIssue(ScanResults.XIssue issue, ScanRequest request) throws JiraClientException {
-        log.debug("Retrieving issuetype object for project {}, type {}", request.getBugTracker().getProjectKey(), request.getBugTracker().getIssueType());
         try {
-            BugTracker bugTracker = request.getBugTracker();
-            String assignee = bugTracker.getAssignee();
-            String projectKey = bugTracker.getProjectKey();
-            String application = request.getApplication();
-            String namespace = request.getNamespace();
-            String repoName = request.getRepoName();
-            String branch = request.getBranch();
-            String filename = issue.getFilename();
-            String vulnerability = issue.getVulnerability();
-            String severity = issue.getSeverity();
-
-            IssueType issueType = this.getIssueType(projectKey, bugTracker.getIssueType());
-            IssueInputBuilder issueBuilder = new IssueInputBuilder(projectKey, issueType.getId());
-            String issuePrefix = jiraProperties.getIssuePrefix();
-            String issuePostfix = jiraProperties.getIssuePostfix();
-
-            if (issuePrefix == null) {
-                issuePrefix = "";
-            }
-            if (issuePostfix == null) {
-                issuePostfix = "";
-            }
+            IssueInput issueInput = getIssueInput(issue, request);
+            log.debug("Creating JIRA issue");
+            BasicIssue basicIssue = this.issueClient.createIssue(issueInput).claim();
+            log.debug("JIRA issue {} created", basicIssue.getKey());
+            return basicIssue.getKey();
+        } catch (RestClientException e) {
+            log.error("Error occurred while creating JIRA issue.", e);
+            throw new JiraClientException();
+        }
+    }
 
-            String summary;
+    private IssueInput getIssueInput(ScanResults.XIssue issue, ScanRequest request) throws JiraClientException {
+        log.debug("Retrieving issuetype object for project {}, type {}", request.getBugTracker().getProjectKey(), request.getBugTracker().getIssueType());
+        BugTracker bugTracker = request.getBugTracker();
+        String assignee = bugTracker.getAssignee();
+        String projectKey = bugTracker.getProjectKey();
+        String application = request.getApplication();
+        String namespace = request.getNamespace();
+        String repoName = request.getRepoName();
+        String branch = request.getBranch();
+        String filename = issue.getFilename();
+        String vulnerability = issue.getVulnerability();
+        String severity = issue.getSeverity();
 
-            boolean useBranch = isUseBranch(request);
+        IssueType issueType = this.getIssueType(projectKey, bugTracker.getIssueType());
+        IssueInputBuilder issueBuilder = new IssueInputBuilder(projectKey, issueType.getId());
+        String issuePrefix = jiraProperties.getIssuePrefix();
+        String issuePostfix = jiraProperties.getIssuePostfix();
 
-            List<ScanResults.ScaDetails> scaDetails = issue.getScaDetails();
-            if (scaDetails != null) {
-                summary = ScanUtils.getScaSummaryIssueKey(request, issue, issuePrefix, issuePostfix);
-            } else {
-                if (useBranch) {
-                    summary = String.format(JiraConstants.JIRA_ISSUE_TITLE_KEY_WITH_BRANCH, issuePrefix, vulnerability, filename, branch, issuePostfix);
-                } else {
-                    summary = String.format(JiraConstants.JIRA_ISSUE_TITLE_KEY, issuePrefix, vulnerability, filename, issuePostfix);
-                }
-            }
-            String fileUrl = ScanUtils.getFileUrl(request, issue.getFilename());
-            summary = checkSummaryLength(summary);
-
-            issueBuilder.setSummary(summary);
-            issueBuilder.setDescription(this.getBody(issue, request, fileUrl));
-            if (assignee != null && !assignee.isEmpty()) {
-                try {
-                    User userAssignee = getAssignee(assignee);
-                    issueBuilder.setAssignee(userAssignee);
-                } catch (RestClientException e) {
-                    log.error("Error occurred while assigning to user {}", assignee, e);
-                }
-            }
+        if (issuePrefix == null) {
+            issuePrefix = "";
+        }
+        if (issuePostfix == null) {
+            issuePostfix = "";
+        }
 
-            if (bugTracker.getPriorities() != null && bugTracker.getPriorities().containsKey(severity)) {
-                issueBuilder.setFieldValue("priority", ComplexIssueInputFieldValue.with("name",
-                        bugTracker.getPriorities().get(severity)));
-            }
+        String summary;
+
+        boolean useBranch = isUseBranch(request);
 
-            /*Add labels for tracking existing issues*/
-            List<String> labels = new ArrayList<>();
+        List<ScanResults.ScaDetails> scaDetails = issue.getScaDetails();
+        if (scaDetails != null) {
+            summary = ScanUtils.getScaSummaryIssueKey(request, issue, issuePrefix, issuePostfix);
+        } else {
             if (useBranch) {
-                labels.add(request.getProduct().getProduct());
-                labels.add(jiraProperties.getOwnerLabelPrefix().concat(":").concat(namespace));
-                labels.add(jiraProperties.getRepoLabelPrefix().concat(":").concat(repoName));
-                labels.add(jiraProperties.getBranchLabelPrefix().concat(":").concat(branch));
-            } else if (!ScanUtils.anyEmpty(application, repoName)) {
-                labels.add(request.getProduct().getProduct());
-                labels.add(jiraProperties.getAppLabelPrefix().concat(":").concat(application));
-                labels.add(jiraProperties.getRepoLabelPrefix().concat(":").concat(repoName));
-            } else if (!ScanUtils.empty(application)) {
-                labels.add(request.getProduct().getProduct());
-                labels.add(jiraProperties.getAppLabelPrefix().concat(":").concat(application));
-            }
-            log.debug("Adding tracker labels: {} - {}", jiraProperties.getLabelTracker(), labels);
-            if (!jiraProperties.getLabelTracker().equals(LABEL_FIELD_TYPE)) {
-                String customField = getCustomFieldByName(projectKey, bugTracker.getIssueType(), jiraProperties.getLabelTracker());
-                issueBuilder.setFieldValue(customField, labels);
+                summary = String.format(JiraConstants.JIRA_ISSUE_TITLE_KEY_WITH_BRANCH, issuePrefix, vulnerability, filename, branch, issuePostfix);
             } else {
-                issueBuilder.setFieldValue(LABEL_FIELD_TYPE, labels);
+                summary = String.format(JiraConstants.JIRA_ISSUE_TITLE_KEY, issuePrefix, vulnerability, filename, issuePostfix);
             }
+        }
+        String fileUrl = ScanUtils.getFileUrl(request, issue.getFilename());
+        summary = checkSummaryLength(summary);
 
-            log.debug("Creating JIRA issue");
+        issueBuilder.setSummary(summary);
+        issueBuilder.setDescription(this.getBody(issue, request, fileUrl));
+        if (assignee != null && !assignee.isEmpty()) {
+            try {
+                User userAssignee = getAssignee(assignee);
+                issueBuilder.setAssignee(userAssignee);
+            } catch (RestClientException e) {
+                log.error("Error occurred while assigning to user {}", assignee, e);
+            }
+        }
 
-            mapCustomFields(request, issue, issueBuilder, false);
+        if (bugTracker.getPriorities() != null && bugTracker.getPriorities().containsKey(severity)) {
+            issueBuilder.setFieldValue("priority", ComplexIssueInputFieldValue.with("name",
+                    bugTracker.getPriorities().get(severity)));
+        }
 
-            log.debug("Creating JIRA issue");
-            log.debug(issueBuilder.toString());
-            BasicIssue basicIssue = this.issueClient.createIssue(issueBuilder.build()).claim();
-            log.debug("JIRA issue {} created", basicIssue.getKey());
-            return basicIssue.getKey();
-        } catch (RestClientException e) {
-            log.error("Error occurred while creating JIRA issue.", e);
-            throw new JiraClientException();
+        /*Add labels for tracking existing issues*/
+        List<String> labels = new ArrayList<>();
+        if (useBranch) {
+            labels.add(request.getProduct().getProduct());
+            labels.add(jiraProperties.getOwnerLabelPrefix().concat(":").concat(namespace));
+            labels.add(jiraProperties.getRepoLabelPrefix().concat(":").concat(repoName));
+            labels.add(jiraProperties.getBranchLabelPrefix().concat(":").concat(branch));
+        } else if (!ScanUtils.anyEmpty(application, repoName)) {
+            labels.add(request.getProduct().getProduct());
+            labels.add(jiraProperties.getAppLabelPrefix().concat(":").concat(application));
+            labels.add(jiraProperties.getRepoLabelPrefix().concat(":").concat(repoName));
+        } else if (!ScanUtils.empty(application)) {
+            labels.add(request.getProduct().getProduct());
+            labels.add(jiraProperties.getAppLabelPrefix().concat(":").concat(application));
+        }
+        log.debug("Adding tracker labels: {} - {}", jiraProperties.getLabelTracker(), labels);
+        if (!jiraProperties.getLabelTracker().equals(LABEL_FIELD_TYPE)) {
+            String customField = getCustomFieldByName(projectKey, bugTracker.getIssueType(), jiraProperties.getLabelTracker());
+            issueBuilder.setFieldValue(customField, labels);
+        } else {
+            issueBuilder.setFieldValue(LABEL_FIELD_TYPE, labels);
         }
+
+        mapCustomFields(request, issue, issueBuilder, false);
+
+        log.debug(issueBuilder.toString());
+        return issueBuilder.build();
     }
 
     private String checkSummaryLength(String summary) {
@@ -383,12 +447,73 @@ public class JiraService {
     }
 
     private Issue updateIssue(String bugId, ScanResults.XIssue issue, ScanRequest request) throws JiraClientException {
+        return updateIssue(bugId, getUpdateIssueInputBuilder(issue, request), request);
+    }
+
+    /**
+     * Updates an existing issue, unless jira.update-fingerprint is enabled and the fingerprint label of the issue
+     * shows that the update would not change its content.
+     *
+     * @param existingIssue issue as retrieved by {@link #getIssues(ScanRequest)}
+     * @return the updated issue, or null if the update was skipped
+     */
+    Issue updateIssue(Issue existingIssue, ScanResults.XIssue issue, ScanRequest request) throws JiraClientException {
+        if (!jiraProperties.isUpdateFingerprint()) {
+            return updateIssue(existingIssue.getKey(), issue, request);
+        }
+        IssueInputBuilder issueBuilder = getUpdateIssueInputBuilder(issue, request);
+        String fingerprintLabel = getFingerprintLabel(issueBuilder, request);
+        if (isUpToDate(existingIssue, fingerprintLabel, request)) {
+            log.info("JIRA issue #{} is up to date. Skipping the update", existingIssue.getKey());
+            Metrics.counter(UPDATES_METRIC, "result", "skipped").increment();
+            return null;
+        }
+
+        List<String> newLabels = existingIssue.getLabels().stream()
+                .filter(label -> !label.startsWith(FINGERPRINT_LABEL_PREFIX))
+                .collect(Collectors.toList());
+        newLabels.add(fingerprintLabel);
+        issueBuilder.setFieldValue(LABEL_FIELD_TYPE, newLabels);
+        Issue updatedIssue = updateIssue(existingIssue.getKey(), issueBuilder, request);
+        Metrics.counter(UPDATES_METRIC, "result", "applied").increment();
+        return updatedIssue;
+    }
+
+    /**
+     * @return whether {@link #updateIssue(Issue, ScanResults.XIssue, ScanRequest)} would skip the update of the issue
+     */
+    private boolean isUpdateToSkip(Issue existingIssue, ScanResults.XIssue issue, ScanRequest request) {
+        return jiraProperties.isUpdateFingerprint()
+                && isUpToDate(existingIssue, getFingerprintLabel(getUpdateIssueInputBuilder(issue, request), request), request);
+    }
+
+    private static boolean isUpToDate(Issue existingIssue, String fingerprintLabel, ScanRequest request) {
+        boolean closed = request.getBugTracker().getClosedStatus().contains(existingIssue.getStatus().getName());
+        return !closed && existingIssue.getLabels().contains(fingerprintLabel);
+    }
+
+    private String getFingerprintLabel(IssueInputBuilder issueBuilder, ScanRequest request) {
+        return FINGERPRINT_LABEL_PREFIX + getFingerprint(issueBuilder.build(), getSystemDateFields(request));
+    }
+
+    /**
+     * @return ids of the custom fields mapped to the system date, which changes with every scan.
+     */
+    private Set<String> getSystemDateFields(ScanRequest request) {
         BugTracker bugTracker = request.getBugTracker();
-        String severity = issue.getSeverity();
-        Issue jiraIssue = this.getIssue(bugId);
-        if (bugTracker.getClosedStatus().contains(jiraIssue.getStatus().getName())) {
-            this.transitionIssue(bugId, bugTracker.getOpenTransition());
+        if (bugTracker.getFields() == null) {
+            return Collections.emptySet();
         }
+        return bugTracker.getFields().stream()
+                .filter(f -> "system-date".equals(f.getName()) && !"cx".equals(f.getType()) && !"static".equals(f.getType()))
+                .map(f -> getCustomFieldByName(bugTracker.getProjectKey(), bugTracker.getIssueType(), f.getJiraFieldName()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private IssueInputBuilder getUpdateIssueInputBuilder(ScanResults.XIssue issue, ScanRequest request) {
+        BugTracker bugTracker = request.getBugTracker();
+        String severity = issue.getSeverity();
         IssueInputBuilder issueBuilder = new IssueInputBuilder();
         String fileUrl = ScanUtils.getFileUrl(request, issue.getFilename());
         issueBuilder.setDescription(this.getBody(issue, request, fileUrl));
@@ -398,11 +523,31 @@ public class JiraService {
                     bugTracker.getPriorities().get(severity)));
         }
 
-        log.info("Updating JIRA issue #{}", bugId);
-
         mapCustomFields(request, issue, issueBuilder, true);
+        return issueBuilder;
+    }
+
+    /**
+     * @return hash of the field values (description, priority and mapped custom fields) set by an update, leaving
+     * out what only depends on the scan: the scan id of Checkmarx links and the system date fields.
+     */
+    private static String getFingerprint(IssueInput issueInput, Set<String> systemDateFields) {
+        String content = issueInput.getFields().values().stream()
+                .filter(field -> !systemDateFields.contains(field.getId()))
+                .sorted(Comparator.comparing(FieldInput::getId))
+                .map(field -> field.getId() + "=" + SCAN_ID_PARAM.matcher(String.valueOf(field.getValue())).replaceAll("$1"))
+                .collect(Collectors.joining("\n"));
+        return Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString().substring(0, FINGERPRINT_LENGTH);
+    }
 
-        log.debug("Updating JIRA issue");
+    private Issue updateIssue(String bugId, IssueInputBuilder issueBuilder, ScanRequest request) throws JiraClientException {
+        BugTracker bugTracker = request.getBugTracker();
+        Issue jiraIssue = this.getIssue(bugId);
+        if (bugTracker.getClosedStatus().contains(jiraIssue.getStatus().getName())) {
+            this.transitionIssue(bugId, bugTracker.getOpenTransition());
+        }
+
+        log.info("Updating JIRA issue #{}", bugId);
         log.debug(issueBuilder.toString());
         try {
             this.issueClient.updateIssue(bugId, issueBuilder.build()).claim();
@@ -710,6 +855,12 @@ public class JiraService {
     }
 
     private SecurityLevel getSecurityLevel(String projectKey, String issueType, String name) {
+        return metadataCache.getSecurityLevels(projectKey, issueType, () -> loadSecurityLevels(projectKey, issueType))
+                .get(name);
+    }
+
+    private Map<String, SecurityLevel> loadSecurityLevels(String projectKey, String issueType) {
+        Map<String, SecurityLevel> securityLevels = new HashMap<>();
         GetCreateIssueMetadataOptions options;
         options = new GetCreateIssueMetadataOptionsBuilder().withExpandedIssueTypesFields().withIssueTypeNames(issueType).withProjectKeys(projectKey).build();
         Iterable<CimProject> metadata = this.issueClient.getCreateIssueMetadata(options).claim();
@@ -723,13 +874,11 @@ public class JiraService {
             if (allowedValues != null) {
                 for (Object lvl : allowedValues) {
                     SecurityLevel secLevel = (SecurityLevel) lvl;
-                    if (secLevel.getName().equals(name)) {
-                        return secLevel;
-                    }
+                    securityLevels.put(secLevel.getName(), secLevel);
                 }
             }
         }
-        return null;
+        return securityLevels;
     }
 
     /**
@@ -743,8 +892,7 @@ public class JiraService {
         try {
             issue = this.issueClient.getIssue(bugId).claim();
 
-            URI transitionURI = issue.getTransitionsUri();
-            final Iterable<Transition> transitions = this.issueClient.getTransitions(transitionURI).claim();
+            final Iterable<Transition> transitions = getTransitions(issue);
             final Transition transition = getTransitionByName(transitions, transitionName);
             if (transition != null) {
                 this.issueClient.transition(issue.getTransitionsUri(), new TransitionInput(transition.getId())).claim();
@@ -759,39 +907,63 @@ public class JiraService {
         return issue;
     }
 
-    private Issue transitionCloseIssue(String bugId, String transitionName, BugTracker bt, boolean falsePositive) throws JiraClientException {
-        Issue issue;
+    /**
+     * Closes the issue with a single transition request, using the project, issue type and status of the supplied
+     * issue (e.g. as retrieved by {@link #getIssues(ScanRequest)}) to look up the transition in the metadata cache.
+     * If Jira rejects the transition or it is not available, e.g. because the issue changed its status in the
+     * meantime, the issue is retrieved again and the transition re-resolved once.
+     */
+    private Issue transitionCloseIssue(Issue issue, String transitionName, BugTracker bt, boolean falsePositive) throws JiraClientException {
         try {
-            issue = this.issueClient.getIssue(bugId).claim();
-
-            URI transitionURI = issue.getTransitionsUri();
-            final Iterable<Transition> transitions = this.issueClient.getTransitions(transitionURI).claim();
-            final Transition transition = getTransitionByName(transitions, transitionName);
-            if (transition != null) {
-                //No input for transition
-                if (ScanUtils.empty(bt.getCloseTransitionField())
-                        && ScanUtils.empty(bt.getCloseTransitionValue())) {
-                    this.issueClient.transition(issue.getTransitionsUri(), new TransitionInput(transition.getId())).claim();
-                }//Input required for transition
-                else {
-                    String transitionValue = bt.getCloseTransitionValue();
-                    if (falsePositive && !ScanUtils.empty(jiraProperties.getCloseFalsePositiveTransitionValue())) { //Allow for a separate resolution status if any of the issues are false positive
-                        transitionValue = jiraProperties.getCloseFalsePositiveTransitionValue();  //TODO add to bt?
-                    }
-                    this.issueClient.transition(issue.getTransitionsUri(), new TransitionInput(transition.getId(),
-                            Collections.singletonList(new FieldInput(bt.getCloseTransitionField(), ComplexIssueInputFieldValue.with("name", transitionValue))))).claim();
+            boolean transitioned;
+            try {
+                transitioned = closeIssue(issue, transitionName, bt, falsePositive);
+            } catch (RestClientException e) {
+                if (!e.getStatusCode().isPresent() || e.getStatusCode().get() != HttpStatus.BAD_REQUEST.value()) {
+                    throw e;
+                }
+                transitioned = false;
+            }
+            if (!transitioned) {
+                log.debug("Re-resolving the {} transition of issue {}", transitionName, issue.getKey());
+                metadataCache.invalidateTransitions(issue.getProject().getKey(), issue.getIssueType().getName(), issue.getStatus().getName());
+                issue = this.getIssue(issue.getKey());
+                if (!closeIssue(issue, transitionName, bt, falsePositive)) {
+                    log.warn("Issue can't be transitioned to {}.  Transition is not applicable to issue {}.  Available transitions: {}",
+                            transitionName, issue.getKey(), getTransitions(issue));
                 }
-            } else {
-                log.warn("Issue cannot't be transitioned to {}.  Transition is not applicable to issue {}.  Available transitions: {}",
-                        transitionName, bugId, transitions.toString());
             }
         } catch (RestClientException e) {
-            log.error("There was a problem transitioning issue {}. ", bugId, e);
-            throw new JiraClientException("");
+            log.error("There was a problem transitioning issue {}. ", issue.getKey(), e);
+            throw new JiraClientException(String.format("Error transitioning issue %s to %s", issue.getKey(), transitionName), e);
         }
         return issue;
     }
 
+    /**
+     * @return false if the transition is not available for the issue
+     */
+    private boolean closeIssue(Issue issue, String transitionName, BugTracker bt, boolean falsePositive) {
+        final Transition transition = getTransitionByName(getTransitions(issue), transitionName);
+        if (transition == null) {
+            return false;
+        }
+        //No input for transition
+        if (ScanUtils.empty(bt.getCloseTransitionField())
+                && ScanUtils.empty(bt.getCloseTransitionValue())) {
+            this.issueClient.transition(issue.getTransitionsUri(), new TransitionInput(transition.getId())).claim();
+        }//Input required for transition
+        else {
+            String transitionValue = bt.getCloseTransitionValue();
+            if (falsePositive && !ScanUtils.empty(jiraProperties.getCloseFalsePositiveTransitionValue())) { //Allow for a separate resolution status if any of the issues are false positive
+                transitionValue = jiraProperties.getCloseFalsePositiveTransitionValue();  //TODO add to bt?
+            }
+            this.issueClient.transition(issue.getTransitionsUri(), new TransitionInput(transition.getId(),
+                    Collections.singletonList(new FieldInput(bt.getCloseTransitionField(), ComplexIssueInputFieldValue.with("name", transitionValue))))).claim();
+        }
+        return true;
+    }
+
     private User getAssignee(String assignee) {
         return client.getUserClient().getUser(assignee).claim();
     }
@@ -818,13 +990,18 @@ public class JiraService {
         return null;
     }
 
-    private void loadCustomFields(String jiraProject, String issueType, boolean force) {
+    /**
+     * Returns the transitions available for the issue. They depend on the project, issue type and current status
+     * of the issue, which is how they are cached.
+     */
+    private Iterable<Transition> getTransitions(Issue issue) {
+        return metadataCache.getTransitions(issue.getProject().getKey(), issue.getIssueType().getName(), issue.getStatus().getName(),
+                () -> Lists.newArrayList(this.issueClient.getTransitions(issue.getTransitionsUri()).claim()));
+    }
+
+    private Map<String, String> loadCustomFields(String jiraProject, String issueType) {
         log.debug("Loading all custom fields");
         Map<String, String> fields = new HashMap<>();
-        String customFieldKey = jiraProject.concat(issueType);
-        if(!force && this.customFields.containsKey(customFieldKey)){
-            return;
-        }
         GetCreateIssueMetadataOptions options;
         options = new GetCreateIssueMetadataOptionsBuilder()
                 .withExpandedIssueTypesFields()
@@ -839,13 +1016,16 @@ public class JiraService {
                     fields.put(name, id);
                 })
         );
-        this.customFields.put(customFieldKey, fields);
+        return fields;
+    }
+
+    private Map<String, String> getCustomFieldIds(String jiraProject, String issueType) {
+        return metadataCache.getFieldIds(jiraProject, issueType, () -> loadCustomFields(jiraProject, issueType));
     }
 
     private String getCustomFieldByName(String jiraProject, String issueType, String fieldName) {
         log.debug("Getting custom field {}", fieldName);
-        //TODO logic for forcing a refresh of custom fields
-        Map<String, String> fields = this.customFields.get(jiraProject.concat(issueType));
+        Map<String, String> fields = getCustomFieldIds(jiraProject, issueType);
         if(!fields.isEmpty()){
             return fields.get(fieldName);
         }
@@ -1114,34 +1294,31 @@ public class JiraService {
         }
     }
 
-    Map<String, List<String>> process(ScanResults results, ScanRequest request, ScanDetails scanDetails) throws JiraClientException {
+    JiraPublishOutcome process(ScanResults results, ScanRequest request, ScanDetails scanDetails) throws JiraClientException {
+        JiraPublishOutcome outcome = new JiraPublishOutcome();
+        process(results, request, scanDetails, outcome);
+        return outcome;
+    }
+
+    /**
+     * Publishes the results into Jira. Created/updated/closed tickets and the findings that are not published yet
+     * are recorded in the supplied outcome, so that the caller can still report them if publishing fails midway.
+     */
+    void process(ScanResults results, ScanRequest request, ScanDetails scanDetails, JiraPublishOutcome outcome) throws JiraClientException {
         Map<String, ScanResults.XIssue> map;
         Map<String, Issue> jiraMap;
-        List<Issue> issuesParent;
-        List<Issue> issuesGrandParent;
-        List<String> newIssues = new ArrayList<>();
-        List<String> updatedIssues = new ArrayList<>();
-        List<String> closedIssues = new ArrayList<>();
+        Map<String, Issue> issuesParent;
+        Map<String, Issue> issuesGrandParent;
 
         getAndModifyRequestApplication(request);
-        loadCustomFields(request.getBugTracker().getProjectKey(), request.getBugTracker().getIssueType(), false);
+        getCustomFieldIds(request.getBugTracker().getProjectKey(), request.getBugTracker().getIssueType());
         if (this.jiraProperties.isChild()) {
-            ScanRequest parent = new ScanRequest(request);
-            ScanRequest grandparent = new ScanRequest(request);
-            BugTracker bugTracker;
-            bugTracker = parent.getBugTracker();
-            bugTracker.setProjectKey(parentUrl);
-            parent.setBugTracker(bugTracker);
-            issuesParent = this.getIssues(parent);
+            issuesParent = getAncestorIssueMap(request, parentUrl);
             if (grandParentUrl.length() == 0) {
                  log.info("Grandparent field is empty");
                 issuesGrandParent = null;
             } else {
-                BugTracker bugTrackerGrandParenet;
-                bugTrackerGrandParenet = grandparent.getBugTracker();
-                bugTrackerGrandParenet.setProjectKey(grandParentUrl);
-                grandparent.setBugTracker(bugTrackerGrandParenet);
-                issuesGrandParent = this.getIssues(grandparent);
+                issuesGrandParent = getAncestorIssueMap(request, grandParentUrl);
             }
         } else {
             issuesParent = null;
@@ -1151,73 +1328,311 @@ public class JiraService {
         log.info("Processing Results and publishing findings to Jira");
 
         map = this.getIssueMap(results, request);
-        setMapWithScanResults(map, nonPublishedScanResultsMap);
+        outcome.addUnpublishedResults(map);
         jiraMap = this.getJiraIssueMap(this.getIssues(request));
 
+        Collection<Map.Entry<String, ScanResults.XIssue>> findings = map.entrySet();
+        Map<String, String> bulkCreateErrors = Collections.emptyMap();
+        if (jiraProperties.isBulkCreate()) {
+            List<Map.Entry<String, ScanResults.XIssue>> newFindings = findings.stream()
+                    .filter(xIssue -> !jiraMap.containsKey(xIssue.getKey()))
+                    .collect(Collectors.toList());
+            bulkCreateErrors = bulkCreateIssues(request, newFindings, issuesParent, issuesGrandParent, outcome);
+            findings = findings.stream()
+                    .filter(xIssue -> jiraMap.containsKey(xIssue.getKey()))
+                    .collect(Collectors.toList());
+        }
+
+        if (jiraProperties.getMaxConcurrentRequests() > 1) {
+            publishConcurrently(request, map, findings, jiraMap, issuesParent, issuesGrandParent, outcome);
+        } else {
+            for (Map.Entry<String, ScanResults.XIssue> xIssue : findings) {
+                publishIssue(request, xIssue, jiraMap, issuesParent, issuesGrandParent, outcome);
+            }
+
+            /*Check if an issue exists in Jira but not within results and close if not*/
+            closeIssueInCaseNotWithinResults(request, map, jiraMap, outcome);
+        }
+
+        if (!bulkCreateErrors.isEmpty()) {
+            throw new JiraClientException(getPublishErrorMessage(bulkCreateErrors, map.size()));
+        }
+
+        logJiraTickets(request, scanDetails, outcome.toTicketsMap());
+    }
+
+    /**
+     * Computes which Jira issues {@link #process} would create, update and close, without writing to Jira.
+     */
+    PublishPlan getPublishPlan(ScanResults results, ScanRequest request) {
+        long start = System.currentTimeMillis();
+        getAndModifyRequestApplication(request);
+        Map<String, Issue> issuesParent = null;
+        Map<String, Issue> issuesGrandParent = null;
+        if (jiraProperties.isChild()) {
+            issuesParent = getAncestorIssueMap(request, parentUrl);
+            if (grandParentUrl.length() > 0) {
+                issuesGrandParent = getAncestorIssueMap(request, grandParentUrl);
+            }
+        }
+
+        Map<String, ScanResults.XIssue> map = this.getIssueMap(results, request);
+        Map<String, Issue> jiraMap = this.getJiraIssueMap(this.getIssues(request));
+        List<String> issuesToCreate = new ArrayList<>();
+        List<String> issuesToUpdate = new ArrayList<>();
+        List<String> issuesToClose = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        List<String> openStatus = request.getBugTracker().getOpenStatus();
+
         for (Map.Entry<String, ScanResults.XIssue> xIssue : map.entrySet()) {
-            String issueCurrentKey = xIssue.getKey();
-            try {
-                ScanResults.XIssue currentIssue = xIssue.getValue();
-
-                /*Issue already exists -> update and comment*/
-                if (jiraMap.containsKey(issueCurrentKey)) {
-                    Issue issue = jiraMap.get(issueCurrentKey);
-                    if (xIssue.getValue().isAllFalsePositive()) {
-                        //All issues are false positive, so issue should be closed
-                        log.debug("All issues are false positives");
-                        Issue fpIssue;
-                        fpIssue = checkForFalsePositiveIssuesInList(request, xIssue, currentIssue, issue);
-                        closeIssueInCaseOfIssueIsInOpenState(request, closedIssues, fpIssue);
-                    }/*Ignore any with label indicating false positive*/
-                    else if (!issue.getLabels().contains(jiraProperties.getFalsePositiveLabel())) {
-                        updateIssueAndAddToNewIssuesList(request, updatedIssues, xIssue, currentIssue, issue);
-                    } else {
-                        log.info("Skipping issue marked as false-positive or has False Positive state with key {}", issueCurrentKey);
-                    }
+            String key = xIssue.getKey();
+            Issue issue = jiraMap.get(key);
+            if (issue == null) {
+                if (isIssueToCreate(xIssue, issuesParent, issuesGrandParent)) {
+                    issuesToCreate.add(key);
                 } else {
-                    /*Create the new issue*/
-                    if (!currentIssue.isAllFalsePositive() && (!jiraProperties.isChild() || (!parentCheck(issueCurrentKey, issuesParent) && !grandparentCheck(issueCurrentKey, issuesGrandParent)))) {
-                        if (jiraProperties.isChild()) {
-                            log.info("Issue not found in parent creating issue for child");
-                        }
-                        createIssueAndAddToNewIssuesList(request, newIssues, xIssue, currentIssue);
-                    }
+                    skipped.add(key);
+                }
+            } else if (xIssue.getValue().isAllFalsePositive()) {
+                boolean update = flowProperties.isListFalsePositives();
+                boolean close = openStatus.contains(issue.getStatus().getName());
+                if (update) {
+                    issuesToUpdate.add(key);
+                }
+                if (close) {
+                    issuesToClose.add(key);
+                }
+                if (!update && !close) {
+                    skipped.add(key);
+                }
+            } else if (!issue.getLabels().contains(jiraProperties.getFalsePositiveLabel())
+                    && !isUpdateToSkip(issue, xIssue.getValue(), request)) {
+                issuesToUpdate.add(key);
+            } else {
+                skipped.add(key);
+            }
+        }
+        for (Map.Entry<String, Issue> jiraIssue : jiraMap.entrySet()) {
+            if (isOpenAndNotWithinResults(request, map, jiraIssue)) {
+                issuesToClose.add(jiraIssue.getKey());
+            }
+        }
+
+        PublishPlan plan = PublishPlan.builder()
+                .bugTracker(BugTracker.Type.JIRA.name())
+                .issuesToCreate(issuesToCreate)
+                .issuesToUpdate(issuesToUpdate)
+                .issuesToClose(issuesToClose)
+                .skipped(skipped)
+                .planningTime(System.currentTimeMillis() - start)
+                .build();
+        PublishPlanMetrics.record(plan, true);
+        return plan;
+    }
+
+    /**
+     * Creates, updates or closes the Jira issue of a single finding. The steps for one finding are executed in order
+     * (e.g. the update comment is only added after the update succeeded).
+     */
+    private void publishIssue(ScanRequest request, Map.Entry<String, ScanResults.XIssue> xIssue, Map<String, Issue> jiraMap,
+                              Map<String, Issue> issuesParent, Map<String, Issue> issuesGrandParent, JiraPublishOutcome outcome) throws JiraClientException {
+        String issueCurrentKey = xIssue.getKey();
+        try {
+            ScanResults.XIssue currentIssue = xIssue.getValue();
+
+            /*Issue already exists -> update and comment*/
+            if (jiraMap.containsKey(issueCurrentKey)) {
+                Issue issue = jiraMap.get(issueCurrentKey);
+                if (xIssue.getValue().isAllFalsePositive()) {
+                    //All issues are false positive, so issue should be closed
+                    log.debug("All issues are false positives");
+                    Issue fpIssue;
+                    fpIssue = checkForFalsePositiveIssuesInList(request, xIssue, currentIssue, issue);
+                    closeIssueInCaseOfIssueIsInOpenState(request, outcome, fpIssue);
+                }/*Ignore any with label indicating false positive*/
+                else if (!issue.getLabels().contains(jiraProperties.getFalsePositiveLabel())) {
+                    updateIssueAndAddToNewIssuesList(request, outcome, xIssue, currentIssue, issue);
+                } else {
+                    log.info("Skipping issue marked as false-positive or has False Positive state with key {}", issueCurrentKey);
+                }
+            } else {
+                /*Create the new issue*/
+                if (isIssueToCreate(xIssue, issuesParent, issuesGrandParent)) {
+                    logChildIssueCreation();
+                    createIssueAndAddToNewIssuesList(request, outcome, xIssue, currentIssue);
                 }
-            } catch (RestClientException e) {
-                log.error("Error occurred while processing issue with key {}", issueCurrentKey, e);
-                throw new JiraClientException();
             }
-            log.debug("Issue: {} successfully updated. Removing it from dynamic scan results map", xIssue.getValue());
-            nonPublishedScanResultsMap.remove(issueCurrentKey);
+        } catch (RestClientException e) {
+            log.error("Error occurred while processing issue with key {}", issueCurrentKey, e);
+            throw new JiraClientException();
         }
+        log.debug("Issue: {} successfully updated. Removing it from dynamic scan results map", xIssue.getValue());
+        outcome.markPublished(issueCurrentKey);
+    }
 
+    /**
+     * Publishes the findings and closes the Jira issues that are no longer within the results using the jiraPublish
+     * executor, which limits the number of findings in progress to jira.max-concurrent-requests.
+     * A failure doesn't stop the remaining findings from being published; all failures are reported together
+     * once every finding has been handled.
+     */
+    private void publishConcurrently(ScanRequest request, Map<String, ScanResults.XIssue> map, Collection<Map.Entry<String, ScanResults.XIssue>> findings,
+                                     Map<String, Issue> jiraMap, Map<String, Issue> issuesParent, Map<String, Issue> issuesGrandParent,
+                                     JiraPublishOutcome outcome) throws JiraClientException {
+        log.info("Publishing {} findings with up to {} concurrent Jira requests", findings.size(), jiraProperties.getMaxConcurrentRequests());
+        Map<String, String> loggingContext = MDC.getCopyOfContextMap();
+        Map<String, String> errors = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        for (Map.Entry<String, ScanResults.XIssue> xIssue : findings) {
+            tasks.add(submitPublishTask(xIssue.getKey(), loggingContext, errors,
+                    () -> publishIssue(request, xIssue, jiraMap, issuesParent, issuesGrandParent, outcome)));
+        }
         /*Check if an issue exists in Jira but not within results and close if not*/
-        closeIssueInCaseNotWithinResults(request, map, jiraMap, closedIssues);
+        for (Map.Entry<String, Issue> jiraIssue : jiraMap.entrySet()) {
+            if (isOpenAndNotWithinResults(request, map, jiraIssue)) {
+                tasks.add(submitPublishTask(jiraIssue.getKey(), loggingContext, errors,
+                        () -> closeIssueNotWithinResults(request, jiraIssue, outcome)));
+            }
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+
+        if (!errors.isEmpty()) {
+            throw new JiraClientException(getPublishErrorMessage(errors, tasks.size()));
+        }
+    }
 
-        ImmutableMap<String, List<String>> ticketsMap = ImmutableMap.of(
-                JiraConstants.NEW_TICKET, newIssues,
-                JiraConstants.UPDATED_TICKET, updatedIssues,
-                JiraConstants.CLOSED_TICKET, closedIssues);
+    private static String getPublishErrorMessage(Map<String, String> errors, int total) {
+        String details = errors.entrySet().stream()
+                .map(error -> error.getKey() + ": " + error.getValue())
+                .collect(Collectors.joining("\n"));
+        return String.format("Failed to publish %d of %d Jira issues:%n%s", errors.size(), total, details);
+    }
 
-        logJiraTickets(request, scanDetails, ticketsMap);
+    /**
+     * Decides whether a finding without a Jira issue needs one. Used by the publish plan as well, so it doesn't write
+     * or log anything.
+     */
+    private boolean isIssueToCreate(Map.Entry<String, ScanResults.XIssue> xIssue, Map<String, Issue> issuesParent, Map<String, Issue> issuesGrandParent) {
+        String issueCurrentKey = xIssue.getKey();
+        return !xIssue.getValue().isAllFalsePositive() && (!jiraProperties.isChild() || (!parentCheck(issueCurrentKey, issuesParent) && !grandparentCheck(issueCurrentKey, issuesGrandParent)));
+    }
 
-        setCurrentNewIssuesList(newIssues);
-        setCurrentUpdatedIssuesList(updatedIssues);
-        setCurrentClosedIssuesList(closedIssues);
-        
-        return ticketsMap;
+    private void logChildIssueCreation() {
+        if (jiraProperties.isChild()) {
+            log.info("Issue not found in parent creating issue for child");
+        }
+    }
+
+    /**
+     * Creates the issues of new findings using the Jira bulk create endpoint, in batches of at most
+     * {@link #MAX_BULK_CREATE_ISSUES}. If a whole batch is rejected, its issues are created one by one.
+     *
+     * @return error messages of the findings Jira refused to create, by finding key. These findings are left
+     * in the unpublished results of the outcome.
+     */
+    private Map<String, String> bulkCreateIssues(ScanRequest request, List<Map.Entry<String, ScanResults.XIssue>> newFindings,
+                                                 Map<String, Issue> issuesParent, Map<String, Issue> issuesGrandParent, JiraPublishOutcome outcome) throws JiraClientException {
+        List<Map.Entry<String, ScanResults.XIssue>> issuesToCreate = new ArrayList<>();
+        for (Map.Entry<String, ScanResults.XIssue> xIssue : newFindings) {
+            if (isIssueToCreate(xIssue, issuesParent, issuesGrandParent)) {
+                logChildIssueCreation();
+                issuesToCreate.add(xIssue);
+            } else {
+                outcome.markPublished(xIssue.getKey());
+            }
+        }
+        log.info("Creating {} new Jira issues in batches of up to {}", issuesToCreate.size(), MAX_BULK_CREATE_ISSUES);
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (List<Map.Entry<String, ScanResults.XIssue>> batch : Lists.partition(issuesToCreate, MAX_BULK_CREATE_ISSUES)) {
+            errors.putAll(createIssueBatch(request, batch, outcome));
+        }
+        return errors;
     }
 
-    public List<String> getCurrentNewIssuesList() {
-        return currentNewIssuesList;
+    private Map<String, String> createIssueBatch(ScanRequest request, List<Map.Entry<String, ScanResults.XIssue>> batch, JiraPublishOutcome outcome) throws JiraClientException {
+        BulkOperationResult<BasicIssue> result;
+        try {
+            List<IssueInput> issueInputs = new ArrayList<>();
+            for (Map.Entry<String, ScanResults.XIssue> xIssue : batch) {
+                issueInputs.add(getIssueInput(xIssue.getValue(), request));
+            }
+            result = this.issueClient.createIssues(issueInputs).claim();
+        } catch (RestClientException e) {
+            log.warn("Bulk creation of {} JIRA issues failed, creating them one at a time", batch.size(), e);
+            return createIssuesOneByOne(request, batch, outcome);
+        }
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        List<String> findingKeys = batch.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+        getCreatedIssueKeys(findingKeys, result, errors).forEach((key, newIssue) -> {
+            outcome.addNewIssue(newIssue);
+            outcome.markPublished(key);
+            log.info("New issue created. #{}", newIssue);
+        });
+        return errors;
+    }
+
+    /**
+     * A failure is recorded for its finding only, the remaining findings of the batch are still created.
+     */
+    private Map<String, String> createIssuesOneByOne(ScanRequest request, List<Map.Entry<String, ScanResults.XIssue>> batch, JiraPublishOutcome outcome) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (Map.Entry<String, ScanResults.XIssue> xIssue : batch) {
+            try {
+                createIssueAndAddToNewIssuesList(request, outcome, xIssue, xIssue.getValue());
+                outcome.markPublished(xIssue.getKey());
+            } catch (JiraClientException | RuntimeException e) {
+                log.error("Error occurred while creating issue with key {}", xIssue.getKey(), e);
+                errors.put(xIssue.getKey(), StringUtils.defaultIfEmpty(e.getMessage(), e.getClass().getSimpleName()));
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Maps the result of a bulk create back to the findings of the request: failed element numbers are indexes
+     * in the request, and Jira returns the created issues in the order of the request, leaving out the rejected ones.
+     *
+     * @param errors receives the error messages of the rejected findings, by finding key
+     * @return keys of the created Jira issues by finding key
+     */
+    static Map<String, String> getCreatedIssueKeys(List<String> findingKeys, BulkOperationResult<BasicIssue> result, Map<String, String> errors) {
+        for (BulkOperationErrorResult error : result.getErrors()) {
+            String key = findingKeys.get(error.getFailedElementNumber());
+            log.error("JIRA rejected the issue with key {}: {}", key, error.getElementErrors());
+            errors.put(key, String.valueOf(error.getElementErrors()));
+        }
+        Map<String, String> createdIssueKeys = new LinkedHashMap<>();
+        Iterator<BasicIssue> createdIssues = result.getIssues().iterator();
+        for (String key : findingKeys) {
+            if (!errors.containsKey(key) && createdIssues.hasNext()) {
+                createdIssueKeys.put(key, createdIssues.next().getKey());
+            }
+        }
+        return createdIssueKeys;
     }
 
-    public List<String> getCurrentUpdatedIssuesList() {
-        return currentUpdatedIssuesList;
+    private CompletableFuture<Void> submitPublishTask(String key, Map<String, String> loggingContext, Map<String, String> errors, PublishTask task) {
+        return CompletableFuture.runAsync(() -> {
+            if (loggingContext != null) {
+                MDC.setContextMap(loggingContext);
+            }
+            try {
+                task.run();
+            } catch (JiraClientException | RuntimeException e) {
+                log.error("Error occurred while publishing issue with key {}", key, e);
+                errors.put(key, StringUtils.defaultIfEmpty(e.getMessage(), e.getClass().getSimpleName()));
+            } finally {
+                MDC.clear();
+            }
+        }, publishExecutor);
     }
 
-    public List<String> getCurrentClosedIssuesList() {
-        return currentClosedIssuesList;
+    @FunctionalInterface
+    private interface PublishTask {
+        void run() throws JiraClientException;
     }
 
     private void logJiraTickets(ScanRequest request, ScanDetails scanDetails, ImmutableMap<String, List<String>> ticketsMap) {
@@ -1230,48 +1645,55 @@ public class JiraService {
         }
     }
 
-    private void closeIssueInCaseNotWithinResults(ScanRequest request, Map<String, ScanResults.XIssue> map, Map<String, Issue> jiraMap, List<String> closedIssues) throws JiraClientException {
+    private void closeIssueInCaseNotWithinResults(ScanRequest request, Map<String, ScanResults.XIssue> map, Map<String, Issue> jiraMap, JiraPublishOutcome outcome) throws JiraClientException {
         for (Map.Entry<String, Issue> jiraIssue : jiraMap.entrySet()) {
-            try {
-                if (!map.containsKey(jiraIssue.getKey()) && (request.getBugTracker().getOpenStatus().contains(jiraIssue.getValue().getStatus().getName()))) {
-                    /*Close the issue*/
-                    log.info("Closing issue {} with key {}",jiraIssue.getValue().getKey(), jiraIssue.getKey());
-                    this.transitionCloseIssue(jiraIssue.getValue().getKey(),
-                            request.getBugTracker().getCloseTransition(), request.getBugTracker(), false); //No false positives
-                    closedIssues.add(jiraIssue.getValue().getKey());
-
-                }
-            } catch (HttpClientErrorException e) {
-                log.error("Error occurred while processing issue {} with key {}",jiraIssue.getValue().getKey(), jiraIssue.getKey(), e);
+            if (isOpenAndNotWithinResults(request, map, jiraIssue)) {
+                closeIssueNotWithinResults(request, jiraIssue, outcome);
             }
         }
     }
 
-    private void createIssueAndAddToNewIssuesList(ScanRequest request, List<String> newIssues, Map.Entry<String, ScanResults.XIssue> xIssue, ScanResults.XIssue currentIssue) throws JiraClientException {
+    private boolean isOpenAndNotWithinResults(ScanRequest request, Map<String, ScanResults.XIssue> map, Map.Entry<String, Issue> jiraIssue) {
+        return !map.containsKey(jiraIssue.getKey()) && (request.getBugTracker().getOpenStatus().contains(jiraIssue.getValue().getStatus().getName()));
+    }
+
+    private void closeIssueNotWithinResults(ScanRequest request, Map.Entry<String, Issue> jiraIssue, JiraPublishOutcome outcome) throws JiraClientException {
+        try {
+            /*Close the issue*/
+            log.info("Closing issue {} with key {}",jiraIssue.getValue().getKey(), jiraIssue.getKey());
+            this.transitionCloseIssue(jiraIssue.getValue(),
+                    request.getBugTracker().getCloseTransition(), request.getBugTracker(), false); //No false positives
+            outcome.addClosedIssue(jiraIssue.getValue().getKey());
+        } catch (HttpClientErrorException e) {
+            log.error("Error occurred while processing issue {} with key {}",jiraIssue.getValue().getKey(), jiraIssue.getKey(), e);
+        }
+    }
+
+    private void createIssueAndAddToNewIssuesList(ScanRequest request, JiraPublishOutcome outcome, Map.Entry<String, ScanResults.XIssue> xIssue, ScanResults.XIssue currentIssue) throws JiraClientException {
         log.debug("Creating new issue with key {}", xIssue.getKey());
         String newIssue = this.createIssue(currentIssue, request);
-        newIssues.add(newIssue);
+        outcome.addNewIssue(newIssue);
         log.info("New issue created. #{}", newIssue);
     }
 
-    private void updateIssueAndAddToNewIssuesList(ScanRequest request, List<String> updatedIssues, Map.Entry<String, ScanResults.XIssue> xIssue, ScanResults.XIssue currentIssue, Issue issue) throws JiraClientException {
+    private void updateIssueAndAddToNewIssuesList(ScanRequest request, JiraPublishOutcome outcome, Map.Entry<String, ScanResults.XIssue> xIssue, ScanResults.XIssue currentIssue, Issue issue) throws JiraClientException {
         log.debug("Issue still exists.  Updating issue with key {}", xIssue.getKey());
-        Issue updatedIssue = this.updateIssue(issue.getKey(), currentIssue, request);
+        Issue updatedIssue = this.updateIssue(issue, currentIssue, request);
         if (updatedIssue != null) {
             log.debug("Update completed for issue #{}", updatedIssue.getKey());
-            updatedIssues.add(updatedIssue.getKey());
+            outcome.addUpdatedIssue(updatedIssue.getKey());
             if (jiraProperties.isUpdateComment() && !ScanUtils.empty(jiraProperties.getUpdateCommentValue())) {
                 addCommentToBug(issue.getKey(), jiraProperties.getUpdateCommentValue());
             }
         }
     }
 
-    private void closeIssueInCaseOfIssueIsInOpenState(ScanRequest request, List<String> closedIssues, Issue fpIssue) throws JiraClientException {
+    private void closeIssueInCaseOfIssueIsInOpenState(ScanRequest request, JiraPublishOutcome outcome, Issue fpIssue) throws JiraClientException {
         if (request.getBugTracker().getOpenStatus().contains(fpIssue.getStatus().getName())) { //If the status is of open state, close it
             /*Close the issue*/
             log.info("Closing issue with key {}", fpIssue.getKey());
-            this.transitionCloseIssue(fpIssue.getKey(), request.getBugTracker().getCloseTransition(), request.getBugTracker(), true);
-            closedIssues.add(fpIssue.getKey());
+            this.transitionCloseIssue(fpIssue, request.getBugTracker().getCloseTransition(), request.getBugTracker(), true);
+            outcome.addClosedIssue(fpIssue.getKey());
         }
     }
 
@@ -1280,8 +1702,8 @@ public class JiraService {
         if (flowProperties.isListFalsePositives()) { //Update the ticket if flag is set
             log.debug("Issue is being updated to reflect false positive references.  Updating issue with key {}", xIssue.getKey());
             fpIssue = this.updateIssue(issue.getKey(), currentIssue, request);
-        } else { //otherwise simply get a reference to the issue
-            fpIssue = this.getIssue(issue.getKey());
+        } else { //otherwise simply use the issue retrieved with the search results
+            fpIssue = issue;
         }
         return fpIssue;
     }
@@ -1294,14 +1716,32 @@ public class JiraService {
         }
     }
 
-    Map<String, ScanResults.XIssue> getNonPublishedScanResults() {
-        return nonPublishedScanResultsMap;
+    /**
+     * Returns the issues of the parent (or grandparent) project tracked for the request, by summary.
+     * The map is built once per publish and, if jira.parent-cache-ttl is set, reused by the following scans
+     * of the same repo until it expires; at most jira.parent-cache-size maps are kept.
+     */
+    private Map<String, Issue> getAncestorIssueMap(ScanRequest request, String projectKey) {
+        ScanRequest ancestor = new ScanRequest(request);
+        ancestor.getBugTracker().setProjectKey(projectKey);
+        long ttl = TimeUnit.MINUTES.toMillis(jiraProperties.getParentCacheTtl());
+        if (ttl <= 0) {
+            return this.getJiraIssueMap(this.getIssues(ancestor));
+        }
+
+        String jql = getJql(ancestor);
+        Map<String, Issue> cached = ancestorIssueMaps.getIfPresent(jql);
+        if (cached == null) {
+            cached = Collections.unmodifiableMap(this.getJiraIssueMap(this.getIssues(ancestor)));
+            ancestorIssueMaps.put(jql, cached);
+        } else {
+            log.debug("Using {} cached issues of project {}", cached.size(), projectKey);
+        }
+        return cached;
     }
-    
-    boolean parentCheck(String key, List<Issue> issues) {
-        if (issues != null){
-            Map<String, Issue> jiraMap;
-            jiraMap = this.getJiraIssueMap(issues);
+
+    boolean parentCheck(String key, Map<String, Issue> jiraMap) {
+        if (jiraMap != null){
             if (this.jiraProperties.isChild() && (jiraMap.containsKey(key))) {
                 log.info("Issue ({}) found in parent ({}) not creating issue for child issue", jiraMap.get(key).getKey(), parentUrl);
                 return true;
@@ -1311,10 +1751,8 @@ public class JiraService {
         return false;
     }
     
-    boolean grandparentCheck(String key, List<Issue> issues) {
-        if (issues != null){
-            Map<String, Issue> jiraMap;
-            jiraMap = this.getJiraIssueMap(issues);
+    boolean grandparentCheck(String key, Map<String, Issue> jiraMap) {
+        if (jiraMap != null){
             if (this.jiraProperties.isChild() && (jiraMap.containsKey(key))) {
                 log.info("Issue ({}) found in grandParent ({}) not creating issue for child issue", jiraMap.get(key).getKey(), grandParentUrl);
                 return true;
@@ -1327,25 +1765,4 @@ public class JiraService {
     public URI getJiraURI() {
         return jiraURI;
     }
-
-    private void setMapWithScanResults(Map<String, ScanResults.XIssue> sourceMap, Map<String, ScanResults.XIssue> destinationMap) {
-        if (sourceMap != null && !sourceMap.isEmpty()) {
-            destinationMap.putAll(sourceMap);
-        }
-    }
-
-    private void setCurrentNewIssuesList(List<String> currentNewIssuesList) {
-        this.currentNewIssuesList.clear();
-        this.currentNewIssuesList.addAll(currentNewIssuesList);
-    }
-
-    private void setCurrentUpdatedIssuesList(List<String> currentUpdatedIssuesList) {
-        this.currentUpdatedIssuesList.clear();
-        this.currentUpdatedIssuesList.addAll(currentUpdatedIssuesList);
-    }
-
-    private void setCurrentClosedIssuesList(List<String> currentClosedIssuesList) {
-        this.currentClosedIssuesList.clear();
-        this.currentClosedIssuesList.addAll(currentClosedIssuesList);
-    }
 }
@@ -1,7 +1,7 @@
 package com.checkmarx.flow.service;
 
 import com.checkmarx.flow.config.FlowProperties;
-import com.checkmarx.flow.dto.ScanDetails;
+import com.checkmarx.flow.dto.ScanContext;
 import com.checkmarx.flow.dto.ScanRequest;
 import com.checkmarx.flow.exception.ExitThrowable;
 import com.checkmarx.flow.exception.MachinaException;
@@ -27,12 +27,15 @@ public class OsaScannerService {
     private final ResultsService resultsService;
     private final FlowProperties flowProperties;
 
-    private ScanDetails scanDetails = null;
-
     public void cxOsaParseResults(ScanRequest request, File file, File libs) throws ExitThrowable {
+        cxOsaParseResults(ScanContext.of(request), file, libs);
+    }
+
+    public void cxOsaParseResults(ScanContext scanContext, File file, File libs) throws ExitThrowable {
+        ScanRequest request = scanContext.getRequest();
         try {
             ScanResults results = cxService.getOsaReportContent(file, libs, request.getFilter().getSimpleFilters());
-            resultsService.processResults(request, results, scanDetails);
+            resultsService.processResults(request, results, scanContext.getScanDetails());
             if(flowProperties.isBreakBuild() && results !=null && results.getXIssues()!=null && !results.getXIssues().isEmpty()){
                 log.error(ERROR_BREAK_MSG);
                 exit(10);
@@ -0,0 +1,29 @@
+package com.checkmarx.flow.service;
+
+import com.checkmarx.flow.dto.PublishPlan;
+import io.micrometer.core.instrument.Metrics;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the size of every computed publish plan, whether it was only previewed (dry run) or also executed.
+ */
+final class PublishPlanMetrics {
+
+    private static final String ITEMS_METRIC = "cxflow.publish.plan.items";
+    private static final String DURATION_METRIC = "cxflow.publish.plan.duration";
+
+    private PublishPlanMetrics() {
+    }
+
+    static void record(PublishPlan plan, boolean dryRun) {
+        String mode = dryRun ? "dry-run" : "publish";
+        for (Map.Entry<String, Integer> count : plan.getCounts().entrySet()) {
+            Metrics.counter(ITEMS_METRIC, "tracker", plan.getBugTracker(), "action", count.getKey(), "mode", mode)
+                    .increment(count.getValue());
+        }
+        Metrics.timer(DURATION_METRIC, "tracker", plan.getBugTracker(), "mode", mode)
+                .record(plan.getPlanningTime(), TimeUnit.MILLISECONDS);
+    }
+}
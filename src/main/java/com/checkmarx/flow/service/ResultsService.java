@@ -2,7 +2,10 @@ package com.checkmarx.flow.service;
 
 import com.atlassian.jira.rest.client.api.RestClientException;
 import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.flow.dto.BugTracker;
 import com.checkmarx.flow.dto.Field;
+import com.checkmarx.flow.dto.JiraPublishOutcome;
+import com.checkmarx.flow.dto.PublishPlan;
 import com.checkmarx.flow.dto.ScanDetails;
 import com.checkmarx.flow.dto.ScanRequest;
 import com.checkmarx.flow.dto.report.ScanResultsReport;
@@ -35,6 +38,11 @@ import static com.checkmarx.sdk.config.Constants.UNKNOWN_INT;
 @RequiredArgsConstructor
 public class ResultsService {
 
+    /**
+     * Key of the {@link PublishPlan} in the additional details of the results processed in dry run mode.
+     */
+    public static final String PUBLISH_PLAN_KEY = "publishPlan";
+
     private final CxClient cxService;
     private final CxOsaClient osaService;
     private final JiraService jiraService;
@@ -163,6 +171,10 @@ public class ResultsService {
 
     public void processResults(ScanRequest request, ScanResults results, ScanDetails scanDetails) throws MachinaException {
 
+        if (request.isDryRun()) {
+            handleDryRun(request, results);
+            return;
+        }
         if (scanDetails == null) {
             scanDetails = new ScanDetails();
         }
@@ -222,6 +234,39 @@ public class ResultsService {
         }
     }
 
+    /**
+     * Computes which issues {@link #processResults} would create, update and close in the bug tracker of the request,
+     * without writing to the bug tracker. Only supported for Jira and custom bug trackers.
+     */
+    public PublishPlan planResults(ScanRequest request, ScanResults results) throws MachinaException {
+        if (!cxProperties.getOffline()) {
+            getCxFields(request, results);
+        }
+        BugTracker.Type type = request.getBugTracker().getType();
+        switch (type) {
+            case JIRA:
+                return jiraService.getPublishPlan(results, request);
+            case CUSTOM:
+                return issueService.getPublishPlan(results, request);
+            default:
+                throw new MachinaException("Dry run is not supported for bug tracker type " + type);
+        }
+    }
+
+    private void handleDryRun(ScanRequest request, ScanResults results) throws MachinaException {
+        PublishPlan plan = planResults(request, results);
+        log.info("Dry run for bug tracker {}: {} issues to create, {} to update, {} to close, {} skipped (planned in {} ms)",
+                plan.getBugTracker(), plan.getIssuesToCreate().size(), plan.getIssuesToUpdate().size(),
+                plan.getIssuesToClose().size(), plan.getSkipped().size(), plan.getPlanningTime());
+        log.debug("Issues to create: {}", plan.getIssuesToCreate());
+        log.debug("Issues to update: {}", plan.getIssuesToUpdate());
+        log.debug("Issues to close: {}", plan.getIssuesToClose());
+        if (results.getAdditionalDetails() == null) {
+            results.setAdditionalDetails(new HashMap<>());
+        }
+        results.getAdditionalDetails().put(PUBLISH_PLAN_KEY, plan);
+    }
+
     void logScanDetails(ScanRequest request, Integer projectId, ScanResults results) {
         if (log.isInfoEnabled()) {
             log.info(String.format("request : %s", request));
@@ -232,6 +277,9 @@ public class ResultsService {
     }
 
     void sendEmailNotification(ScanRequest request, ScanResults results) {
+        if (request.isDryRun()) {
+            return;
+        }
         emailService.sendScanCompletedEmail(request, results);
     }
 
@@ -299,18 +347,19 @@ public class ResultsService {
     }
 
     private void handleJiraCase(ScanRequest request, ScanResults results, ScanDetails scanDetails) throws JiraClientException {
+        JiraPublishOutcome outcome = new JiraPublishOutcome();
         try {
             log.info("======== Processing results with JIRA issue tracking ========");
-            jiraService.process(results, request, scanDetails);
+            jiraService.process(results, request, scanDetails, outcome);
         } catch (RestClientException e) {
-            handleJiraRestClientException(e);
+            handleJiraRestClientException(e, outcome);
         } catch (JiraClientException e) {
-            handleJiraClientException(e);
+            handleJiraClientException(e, outcome);
         }
     }
 
-    private void handleJiraClientException(JiraClientException e) throws JiraClientException {
-        Map<String, ScanResults.XIssue> nonPublishedScanResultsMap = jiraService.getNonPublishedScanResults();
+    private void handleJiraClientException(JiraClientException e, JiraPublishOutcome outcome) throws JiraClientException {
+        Map<String, ScanResults.XIssue> nonPublishedScanResultsMap = outcome.getUnpublishedResults();
         if (nonPublishedScanResultsMap.size() > 0) {
             throwExceptionWhenPublishingErrorOccurred(e, nonPublishedScanResultsMap);
         } else {
@@ -318,13 +367,13 @@ public class ResultsService {
         }
     }
 
-    private void handleJiraRestClientException(RestClientException e) {
+    private void handleJiraRestClientException(RestClientException e, JiraPublishOutcome outcome) {
         if (e.getStatusCode().isPresent() && e.getStatusCode().get() == HttpStatus.NOT_FOUND.value()) {
             throw new JiraClientRunTimeException("Jira service is not accessible for URL: " + jiraService.getJiraURI() + "\n", e);
         } else if (e.getStatusCode().isPresent() && e.getStatusCode().get() == HttpStatus.FORBIDDEN.value()) {
             throw new JiraClientRunTimeException("Access is forbidden. Please check your basic auth Token \n", e);
         } else {
-            Map<String, ScanResults.XIssue> nonPublishedScanResultsMap = jiraService.getNonPublishedScanResults();
+            Map<String, ScanResults.XIssue> nonPublishedScanResultsMap = outcome.getUnpublishedResults();
             if (e.getStatusCode().isPresent() &&
                     e.getStatusCode().get() == HttpStatus.BAD_REQUEST.value() &&
                     nonPublishedScanResultsMap.size() > 0) {
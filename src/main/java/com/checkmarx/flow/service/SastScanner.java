@@ -7,6 +7,7 @@ import com.checkmarx.flow.exception.ExitThrowable;
 import com.checkmarx.flow.exception.GitHubRepoUnavailableException;
 import com.checkmarx.flow.exception.MachinaException;
 import com.checkmarx.flow.exception.MachinaRuntimeException;
+import com.checkmarx.flow.sastscanning.ScanCompletionTracker;
 import com.checkmarx.flow.sastscanning.ScanRequestConverter;
 import com.checkmarx.flow.utils.ScanUtils;
 import com.checkmarx.flow.utils.ZipUtils;
@@ -32,6 +33,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import static com.checkmarx.flow.exception.ExitThrowable.exit;
 import static com.checkmarx.sdk.config.Constants.UNKNOWN;
 import static com.checkmarx.sdk.config.Constants.UNKNOWN_INT;
@@ -54,52 +56,63 @@ public class SastScanner implements VulnerabilityScanner {
     private final ScanRequestConverter scanRequestConverter;
     private final BugTrackerEventTrigger bugTrackerEventTrigger;
     private final ProjectNameGenerator projectNameGenerator;
-
-    private ScanDetails scanDetails = null;
-    private String sourcesPath = null;
+    private final ScanCompletionTracker scanCompletionTracker;
 
     @Override
     public ScanResults scan(ScanRequest scanRequest) {
-        ScanResults scanResults;
+        return runScan(scanRequest, false).join();
+    }
+
+    /**
+     * When scan completion tracking is enabled, the scan is submitted and handed over to the
+     * {@link ScanCompletionTracker}, so that the calling thread is released right after submission.
+     */
+    @Override
+    public CompletableFuture<ScanResults> scanAsync(ScanRequest scanRequest) {
+        return runScan(scanRequest, flowProperties.isScanCompletionTracking());
+    }
+
+    /**
+     * @param trackCompletion whether to wait for the scan with the {@link ScanCompletionTracker} instead of blocking
+     *                        the calling thread. Without it, the returned future is already completed.
+     * @return future of the scan results; failures are logged and completed with empty results
+     */
+    private CompletableFuture<ScanResults> runScan(ScanRequest scanRequest, boolean trackCompletion) {
         log.info("--------------------- Initiating new {} scan ---------------------", SCAN_TYPE);
         checkScanSubmitEmailDelivery(scanRequest);
 
+        ScanContext scanContext = ScanContext.of(scanRequest);
         try {
-            Integer scanId;
             CxScanParams cxScanParams = scanRequestConverter.toScanParams(scanRequest);
             Integer projectId = cxScanParams.getProjectId();
-
-            log.info("Checking if there is any existing scan for Project: {}", projectId);
-            Integer existingScanId = cxService.getScanIdOfExistingScanIfExists(projectId);
-
-            if (existingScanId != UNKNOWN_INT) {
-                if (flowProperties.getScanResubmit()) {
-                    log.info("Existing ongoing scan with id {} found for Project : {}", existingScanId, projectId);
-                    log.info("Aborting the ongoing scan with id {} for Project: {}", existingScanId, projectId);
-                    cxService.cancelScan(existingScanId);
-                    log.info("Resubmitting the scan for Project: {}", projectId);
-                    scanId = cxService.createScan(cxScanParams, CXFLOW_SCAN_MSG);
-                } else {
-                    log.warn("Property scan-resubmit set to {} : New scan not submitted, due to existing ongoing scan for the same Project id {}", flowProperties.getScanResubmit(), projectId);
-                    throw new CheckmarxException(String.format("Active Scan with Id %d already exists for Project: %d", existingScanId, projectId));
-                }
-            } else {
-                scanId = cxService.createScan(cxScanParams, CXFLOW_SCAN_MSG);
-            }
+            Integer scanId = submitScan(cxScanParams);
 
             BugTracker.Type bugTrackerType = bugTrackerEventTrigger.triggerBugTrackerEvent(scanRequest);
             if (bugTrackerType.equals(BugTracker.Type.NONE)) {
-                scanDetails = handleNoneBugTrackerCase(scanRequest, null, scanId, projectId);
+                scanContext.setScanDetails(handleNoneBugTrackerCase(scanContext, scanId, projectId));
+                logRequest(scanContext, scanId, OperationResult.successful());
+                return CompletableFuture.completedFuture(getScanResults(scanRequest, scanId));
+            }
+
+            CompletableFuture<Integer> scanCompletion;
+            if (trackCompletion) {
+                scanCompletion = scanCompletionTracker.track(scanId);
             } else {
                 cxService.waitForScanCompletion(scanId);
-                projectId = handleUnKnownProjectId(cxScanParams.getProjectId(), cxScanParams.getTeamId(), cxScanParams.getProjectName());
-                scanDetails = new ScanDetails(projectId, scanId, null);
+                scanCompletion = CompletableFuture.completedFuture(scanId);
             }
-            logRequest(scanRequest, scanId, null, OperationResult.successful());
-
-            scanResults = cxService.getReportContentByScanId(scanId, scanRequest.getFilter());
-            scanResults.setSastScanId(scanId);
-            return scanResults;
+            return scanCompletion
+                    .thenApply(completedScanId -> {
+                        Integer completedProjectId = handleUnKnownProjectId(cxScanParams.getProjectId(), cxScanParams.getTeamId(), cxScanParams.getProjectName());
+                        scanContext.setScanDetails(new ScanDetails(completedProjectId, completedScanId, null));
+                        logRequest(scanContext, completedScanId, OperationResult.successful());
+                        try {
+                            return getScanResults(scanRequest, completedScanId);
+                        } catch (CheckmarxException e) {
+                            throw new MachinaRuntimeException(e);
+                        }
+                    })
+                    .exceptionally(e -> handleScanFailure(scanRequest, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
 
         } catch (GitHubRepoUnavailableException e) {
             //the repository is unavailable - can happen for a push event of a deleted branch - nothing to do
@@ -108,16 +121,50 @@ public class SastScanner implements VulnerabilityScanner {
             //usually should occur during push event occuring on delete branch
             //therefore need to eliminate the scan process but do not want to create
             //an error stuck trace in the log
-            return getEmptyScanResults();
+            return CompletableFuture.completedFuture(getEmptyScanResults());
 
         } catch (Exception e) {
-            log.error("SAST scan failed", e);
-            OperationResult scanCreationFailure = new OperationResult(OperationStatus.FAILURE, e.getMessage());
-            ScanReport report = new ScanReport(-1, scanRequest, scanRequest.getRepoUrl(), scanCreationFailure);
-            report.log();
-            return getEmptyScanResults();
+            return CompletableFuture.completedFuture(handleScanFailure(scanRequest, e));
+        }
+    }
+
+    private Integer submitScan(CxScanParams cxScanParams) throws CheckmarxException {
+        Integer scanId;
+        Integer projectId = cxScanParams.getProjectId();
+
+        log.info("Checking if there is any existing scan for Project: {}", projectId);
+        Integer existingScanId = cxService.getScanIdOfExistingScanIfExists(projectId);
+
+        if (existingScanId != UNKNOWN_INT) {
+            if (flowProperties.getScanResubmit()) {
+                log.info("Existing ongoing scan with id {} found for Project : {}", existingScanId, projectId);
+                log.info("Aborting the ongoing scan with id {} for Project: {}", existingScanId, projectId);
+                cxService.cancelScan(existingScanId);
+                log.info("Resubmitting the scan for Project: {}", projectId);
+                scanId = cxService.createScan(cxScanParams, CXFLOW_SCAN_MSG);
+            } else {
+                log.warn("Property scan-resubmit set to {} : New scan not submitted, due to existing ongoing scan for the same Project id {}", flowProperties.getScanResubmit(), projectId);
+                throw new CheckmarxException(String.format("Active Scan with Id %d already exists for Project: %d", existingScanId, projectId));
+            }
+        } else {
+            scanId = cxService.createScan(cxScanParams, CXFLOW_SCAN_MSG);
         }
-    } 
+        return scanId;
+    }
+
+    private ScanResults getScanResults(ScanRequest scanRequest, Integer scanId) throws CheckmarxException {
+        ScanResults scanResults = cxService.getReportContentByScanId(scanId, scanRequest.getFilter());
+        scanResults.setSastScanId(scanId);
+        return scanResults;
+    }
+
+    private ScanResults handleScanFailure(ScanRequest scanRequest, Throwable e) {
+        log.error("SAST scan failed", e);
+        OperationResult scanCreationFailure = new OperationResult(OperationStatus.FAILURE, e.getMessage());
+        ScanReport report = new ScanReport(-1, scanRequest, scanRequest.getRepoUrl(), scanCreationFailure);
+        report.log();
+        return getEmptyScanResults();
+    }
 
     @Override
     public ScanResults scanCli(ScanRequest request, String scanType, File... files) {
@@ -169,7 +216,13 @@ public class SastScanner implements VulnerabilityScanner {
     }
 
     public ScanDetails executeCxScan(ScanRequest request, File cxFile) throws MachinaException {
+        return executeCxScan(ScanContext.of(request, cxFile));
+    }
+
+    public ScanDetails executeCxScan(ScanContext scanContext) throws MachinaException {
 
+        ScanRequest request = scanContext.getRequest();
+        File cxFile = scanContext.getCxFile();
         String osaScanId;
         Integer scanId = null;
         Integer projectId;
@@ -187,14 +240,14 @@ public class SastScanner implements VulnerabilityScanner {
 
             BugTracker.Type bugTrackerType = bugTrackerEventTrigger.triggerBugTrackerEvent(request);
             if (bugTrackerType.equals(BugTracker.Type.NONE)) {
-                return handleNoneBugTrackerCase(request, cxFile, scanId, projectId);
+                return handleNoneBugTrackerCase(scanContext, scanId, projectId);
             } else {
                 cxService.waitForScanCompletion(scanId);
                 projectId = handleUnKnownProjectId(projectId, ownerId, request.getProject());
                 osaScanId = createOsaScan(request, projectId);
 
                 if (osaScanId != null) {
-                    logRequest(request, osaScanId, cxFile, OperationResult.successful());
+                    logRequest(scanContext, osaScanId, OperationResult.successful());
                 }
             }
         } catch (GitHubRepoUnavailableException e) {
@@ -204,13 +257,14 @@ public class SastScanner implements VulnerabilityScanner {
             //an error stuck trace in the log
             return new ScanDetails(UNKNOWN_INT, UNKNOWN_INT, new CompletableFuture<>(), false);
         } catch (CheckmarxException | GitAPIException e) {
-            String extendedMessage = treatFailure(request, cxFile, scanId, e);
+            String extendedMessage = treatFailure(scanContext, scanId, e);
             throw new MachinaException("Checkmarx Error Occurred: " + extendedMessage);
         }
 
-        logRequest(request, scanId, cxFile, OperationResult.successful());
-        
-        this.scanDetails = new ScanDetails(projectId, scanId, osaScanId);
+        logRequest(scanContext, scanId, OperationResult.successful());
+
+        ScanDetails scanDetails = new ScanDetails(projectId, scanId, osaScanId);
+        scanContext.setScanDetails(scanDetails);
         return scanDetails;
     }
 
@@ -256,9 +310,14 @@ public class SastScanner implements VulnerabilityScanner {
     }
 
     public void cxParseResults(ScanRequest request, File file) throws ExitThrowable {
+        cxParseResults(ScanContext.of(request), file);
+    }
+
+    public void cxParseResults(ScanContext scanContext, File file) throws ExitThrowable {
+        ScanRequest request = scanContext.getRequest();
         try {
             ScanResults results = cxService.getReportContent(file, request.getFilter());
-            resultsService.processResults(request, results, scanDetails);
+            resultsService.processResults(request, results, scanContext.getScanDetails());
             if (flowProperties.isBreakBuild() && results != null && results.getXIssues() != null && !results.getXIssues().isEmpty()) {
                 log.error(ERROR_BREAK_MSG);
                 exit(10);
@@ -325,46 +384,29 @@ public class SastScanner implements VulnerabilityScanner {
         }
     }
 
-    private String treatFailure(ScanRequest request, File cxFile, Integer scanId, Exception e) {
+    private String treatFailure(ScanContext scanContext, Integer scanId, Exception e) {
         String extendedMessage = ExceptionUtils.getMessage(e);
         log.error(extendedMessage, e);
         Thread.currentThread().interrupt();
         OperationResult scanCreationFailure = new OperationResult(OperationStatus.FAILURE, e.getMessage());
-        logRequest(request, scanId, cxFile, scanCreationFailure);
+        logRequest(scanContext, scanId, scanCreationFailure);
         return extendedMessage;
     }
 
-    private void logRequest(ScanRequest request, Integer scanId, File cxFile, OperationResult scanCreationResult) {
-        ScanReport report = new ScanReport(scanId, request, getRepoUrl(request, cxFile), scanCreationResult);
+    private void logRequest(ScanContext scanContext, Integer scanId, OperationResult scanCreationResult) {
+        ScanReport report = new ScanReport(scanId, scanContext.getRequest(), scanContext.getRepoUrl(), scanCreationResult);
         report.log();
     }
 
-    private void logRequest(ScanRequest request, String scanId, File cxFile, OperationResult scanCreationResult) {
-        ScanReport report = new ScanReport(scanId, request, getRepoUrl(request, cxFile), scanCreationResult);
+    private void logRequest(ScanContext scanContext, String scanId, OperationResult scanCreationResult) {
+        ScanReport report = new ScanReport(scanId, scanContext.getRequest(), scanContext.getRepoUrl(), scanCreationResult);
         report.log();
     }
 
-    private String getRepoUrl(ScanRequest request, File cxFile) {
-        String repoUrl;
-
-        if (sourcesPath != null) {
-            //the folder to scan is supplied via -f flag in command line and it is located in the filesystem
-            repoUrl = sourcesPath;
-        } else if (cxFile != null) {
-            //in general cxFile is a zip created by cxFlow using the folder supplied y -f
-            //the use case when sourcePath is empty but cxFile is set is only for the test flow
-            repoUrl = cxFile.getAbsolutePath();
-        } else {
-            //sources to scan are in the remote repository (GitHib, TFS ... etc)
-            repoUrl = request.getRepoUrl();
-        }
-        return repoUrl;
-    }
-
-    private ScanDetails handleNoneBugTrackerCase(ScanRequest request, File cxFile, Integer scanId, Integer projectId) {
+    private ScanDetails handleNoneBugTrackerCase(ScanContext scanContext, Integer scanId, Integer projectId) {
         log.info("Not waiting for scan completion as Bug Tracker type is NONE");
         CompletableFuture<ScanResults> results = CompletableFuture.completedFuture(null);
-        logRequest(request, scanId, cxFile, OperationResult.successful());
+        logRequest(scanContext, scanId, OperationResult.successful());
         return new ScanDetails(projectId, scanId, results, false);
     }
 
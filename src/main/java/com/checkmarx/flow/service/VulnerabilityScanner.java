@@ -4,6 +4,7 @@ import com.checkmarx.flow.dto.ScanRequest;
 import com.checkmarx.sdk.dto.ScanResults;
 
 import java.io.File;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.CheckForNull;
 
@@ -13,6 +14,14 @@ public interface VulnerabilityScanner {
     @CheckForNull
     ScanResults scan(ScanRequest scanRequest);
 
+    /**
+     * Submits a scan and returns a future for its results. Scanners that are able to follow their scans
+     * without blocking the calling thread override this; by default the scan is performed synchronously.
+     */
+    default CompletableFuture<ScanResults> scanAsync(ScanRequest scanRequest) {
+        return CompletableFuture.completedFuture(scan(scanRequest));
+    }
+
     @CheckForNull
 	ScanResults scanCli(ScanRequest request, String scanType, File... files);
 
@@ -248,11 +248,11 @@ public class DeleteBranchSteps {
         }
         
         ScanRequestConverter scanRequestConverter = new ScanRequestConverter(helperService, cxProperties, cxClientMock, flowProperties, gitHubService, null);
-        SastScanner sastScanner = new SastScanner(null, cxClientMock, helperService, cxProperties, flowProperties, null, null, scanRequestConverter, null, projectNameGeneratorSpy);
+        SastScanner sastScanner = new SastScanner(null, cxClientMock, helperService, cxProperties, flowProperties, null, null, scanRequestConverter, null, projectNameGeneratorSpy, null);
         List<VulnerabilityScanner> scanners= new LinkedList<>();
         scanners.add(sastScanner);
         
-        FlowService flowServiceSpy = spy(new FlowService(scanners, projectNameGeneratorSpy, null));
+        FlowService flowServiceSpy = spy(new FlowService(scanners, projectNameGeneratorSpy, null, flowProperties, null, null, null));
         
         //gitHubControllerSpy is a spy which will run real methods.
         //It will connect to a real github repository to read a real cx.config file
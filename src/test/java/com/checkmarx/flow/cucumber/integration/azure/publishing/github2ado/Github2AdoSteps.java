@@ -115,7 +115,7 @@ public class Github2AdoSteps {
         this.flowProperties.setBugTracker(AZURE);
         this.flowProperties.setBugTrackerImpl(Collections.singletonList(AZURE));
         this.adoProperties.setUrl("https://dev.azure.com/");
-        issueService = new IssueService(flowProperties);
+        issueService = new IssueService(flowProperties, Runnable::run);
         issueService.setApplicationContext(applicationContext);
         scanResultsToInject = createFakeResults();
         initCxClientMock();
@@ -139,7 +139,7 @@ public class PublishingSteps extends PublishingStepsBase {
 
     private GitHubController getGitHubControllerInstance() {
         List<VulnerabilityScanner> vulnerabilityScannerList = Collections.singletonList(sastScanner);
-        FlowService flowService = new FlowService(vulnerabilityScannerList, projectNameGenerator, resultsService);
+        FlowService flowService = new FlowService(vulnerabilityScannerList, projectNameGenerator, resultsService, flowProperties, null, null, null);
 
         return new GitHubController(gitHubProperties, flowProperties, cxProperties,
                 null, flowService, helperService, gitHubService, null, filterFactory, configOverrider);
@@ -0,0 +1,95 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.flow.dto.Issue;
+import com.checkmarx.flow.dto.IssueOutcome;
+import com.checkmarx.flow.dto.IssueUpdate;
+import com.checkmarx.flow.dto.ScanRequest;
+import com.checkmarx.flow.exception.MachinaException;
+import com.checkmarx.flow.exception.MachinaRuntimeException;
+import com.checkmarx.sdk.dto.ScanResults;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class BatchIssueTrackerTest {
+
+    private BatchIssueTracker tracker;
+    private ScanRequest request;
+
+    @Before
+    public void setUp() {
+        tracker = mock(BatchIssueTracker.class, CALLS_REAL_METHODS);
+        request = ScanRequest.builder().build();
+    }
+
+    @Test
+    public void createIssues_MiddleItemFails_CreatesOtherItems() throws MachinaException {
+        ScanResults.XIssue first = getFinding("SQL_Injection");
+        ScanResults.XIssue failing = getFinding("XSS");
+        ScanResults.XIssue last = getFinding("Path_Traversal");
+        doReturn(getIssue("1")).when(tracker).createIssue(first, request);
+        doThrow(new MachinaRuntimeException("Validation failed")).when(tracker).createIssue(failing, request);
+        doReturn(getIssue("3")).when(tracker).createIssue(last, request);
+
+        List<IssueOutcome> outcomes = tracker.createIssues(Arrays.asList(first, failing, last), request);
+
+        assertEquals(3, outcomes.size());
+        assertEquals("1", outcomes.get(0).getIssue().getId());
+        assertFalse(outcomes.get(1).isSuccess());
+        assertTrue(outcomes.get(1).getError() instanceof MachinaRuntimeException);
+        assertEquals("3", outcomes.get(2).getIssue().getId());
+    }
+
+    @Test
+    public void updateIssues_MiddleItemFailsWithCheckedException_UpdatesOtherItems() throws MachinaException {
+        IssueUpdate first = new IssueUpdate(getIssue("1"), getFinding("SQL_Injection"));
+        IssueUpdate failing = new IssueUpdate(getIssue("2"), getFinding("XSS"));
+        IssueUpdate last = new IssueUpdate(getIssue("3"), getFinding("Path_Traversal"));
+        doReturn(first.getIssue()).when(tracker).updateIssue(first.getIssue(), first.getResultIssue(), request);
+        doThrow(new MachinaException("Not found")).when(tracker).updateIssue(failing.getIssue(), failing.getResultIssue(), request);
+        doReturn(last.getIssue()).when(tracker).updateIssue(last.getIssue(), last.getResultIssue(), request);
+
+        List<IssueOutcome> outcomes = tracker.updateIssues(Arrays.asList(first, failing, last), request);
+
+        assertTrue(outcomes.get(0).isSuccess());
+        assertFalse(outcomes.get(1).isSuccess());
+        assertTrue(outcomes.get(2).isSuccess());
+    }
+
+    @Test
+    public void closeIssues_MiddleItemFails_ClosesOtherItems() throws MachinaException {
+        Issue first = getIssue("1");
+        Issue failing = getIssue("2");
+        Issue last = getIssue("3");
+        doThrow(new MachinaRuntimeException()).when(tracker).closeIssue(failing, request);
+
+        List<IssueOutcome> outcomes = tracker.closeIssues(Arrays.asList(first, failing, last), request);
+
+        assertTrue(outcomes.get(0).isSuccess());
+        assertFalse(outcomes.get(1).isSuccess());
+        assertTrue(outcomes.get(2).isSuccess());
+        verify(tracker).closeIssue(eq(last), eq(request));
+    }
+
+    private static ScanResults.XIssue getFinding(String vulnerability) {
+        return ScanResults.XIssue.builder().vulnerability(vulnerability).filename("a.java").build();
+    }
+
+    private static Issue getIssue(String id) {
+        Issue issue = new Issue();
+        issue.setId(id);
+        return issue;
+    }
+}
@@ -0,0 +1,108 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.flow.dto.ScanRequest;
+import com.checkmarx.flow.service.FilenameFormatter;
+import com.checkmarx.sdk.dto.ScanResults;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CsvIssueTrackerTest {
+
+    private static final String EXPECTED = "Summary,Severity,Description\r\n"
+            + "MyApp:SQL_Injection @ src/a.java,High,line1 line2\r\n"
+            + "MyApp:XSS @ src/b.java,Low,plain\r\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CsvProperties properties;
+    private CsvIssueTracker tracker;
+    private String filename;
+
+    @Before
+    public void setUp() {
+        properties = new CsvProperties();
+        properties.setIncludeHeader(true);
+        properties.setFields(Arrays.asList(
+                getField("Summary", "summary", "[APP]:"),
+                getField("Severity", "severity", null),
+                getField("Description", "description", null)));
+        filename = folder.getRoot().toPath().resolve("results.csv").toString();
+        FilenameFormatter filenameFormatter = mock(FilenameFormatter.class);
+        when(filenameFormatter.formatPath(any(), anyString(), anyString())).thenReturn(filename);
+        tracker = new CsvIssueTracker(properties, new FlowProperties(), filenameFormatter);
+    }
+
+    @Test
+    public void complete_AfterIssues_WritesAllRows() throws Exception {
+        ScanRequest request = publish();
+
+        assertEquals(filename, request.getFilename());
+        assertEquals(EXPECTED, new String(Files.readAllBytes(Paths.get(filename)), Charset.defaultCharset()));
+    }
+
+    @Test
+    public void complete_Gzip_WritesCompressedRows() throws Exception {
+        properties.setGzip(true);
+
+        ScanRequest request = publish();
+
+        assertEquals(filename + ".gz", request.getFilename());
+        assertEquals(EXPECTED, readGzip(request.getFilename()));
+    }
+
+    private ScanRequest publish() throws Exception {
+        ScanRequest request = ScanRequest.builder().application("MyApp").build();
+        tracker.init(request, null);
+        tracker.createIssue(getIssue("SQL_Injection", "src/a.java", "High", "line1\nline2"), request);
+        tracker.createIssue(getIssue("XSS", "src/b.java", "Low", "plain"), request);
+        tracker.complete(request, null);
+        return request;
+    }
+
+    private static String readGzip(String path) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(Paths.get(path)))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            for (int read = in.read(buffer); read > 0; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), Charset.defaultCharset());
+        }
+    }
+
+    private static CsvProperties.Field getField(String header, String name, String prefix) {
+        CsvProperties.Field field = new CsvProperties.Field();
+        field.setHeader(header);
+        field.setName(name);
+        field.setPrefix(prefix);
+        return field;
+    }
+
+    private static ScanResults.XIssue getIssue(String vulnerability, String file, String severity, String description) {
+        return ScanResults.XIssue.builder()
+                .vulnerability(vulnerability)
+                .filename(file)
+                .severity(severity)
+                .description(description)
+                .build();
+    }
+}
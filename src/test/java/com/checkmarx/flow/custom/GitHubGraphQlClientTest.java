@@ -0,0 +1,96 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.flow.config.GitHubProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GitHubGraphQlClientTest {
+
+    private static final String GRAPHQL_URL = "https://api.github.com/graphql";
+
+    private RestTemplate restTemplate;
+    private GitHubProperties properties;
+    private GitHubGraphQlClient client;
+
+    @Before
+    public void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        properties = new GitHubProperties();
+        properties.setToken("token");
+        properties.setGraphqlUrl(GRAPHQL_URL);
+        client = new GitHubGraphQlClient(restTemplate, properties);
+    }
+
+    @Test
+    public void closeIssues_OneMutationFails_ReturnsErrorForThatIssue() {
+        respond("{\"data\": {\"i0\": {\"issue\": {\"id\": \"A\", \"state\": \"CLOSED\"}}, \"i1\": null}, "
+                + "\"errors\": [{\"path\": [\"i1\"], \"message\": \"Could not resolve to a node\"}]}");
+
+        List<GitHubGraphQlClient.Result> results = client.closeIssues(Arrays.asList("A", "B"));
+
+        assertNotNull(results.get(0).getIssue());
+        assertNull(results.get(1).getIssue());
+        assertEquals("Could not resolve to a node", results.get(1).getError());
+    }
+
+    @Test(expected = GitHubGraphQlClient.GraphQlException.class)
+    public void closeIssues_NoData_Throws() {
+        respond("{\"errors\": [{\"message\": \"Parse error\"}]}");
+
+        client.closeIssues(Arrays.asList("A", "B"));
+    }
+
+    @Test(expected = GitHubGraphQlClient.GraphQlException.class)
+    public void closeIssues_RequestFails_Throws() {
+        when(restTemplate.exchange(eq(GRAPHQL_URL), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenThrow(new ResourceAccessException("Connection reset"));
+
+        client.closeIssues(Arrays.asList("A", "B"));
+    }
+
+    @Test
+    public void createIssues_LabelMissing_ThrowsWithoutCachingRepository() {
+        properties.setIssueLabel("security");
+        respond("{\"data\": {\"repository\": {\"id\": \"R\", \"label\": null}}}");
+        List<Map.Entry<String, String>> issues = Collections.singletonList(new AbstractMap.SimpleImmutableEntry<>("title", "body"));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                client.createIssues("owner", "repo", issues);
+                fail("Creating issues without the label should fail");
+            } catch (GitHubGraphQlClient.GraphQlException e) {
+                assertEquals("Label security doesn't exist in owner/repo", e.getMessage());
+            }
+        }
+
+        //The repository is looked up again by the second call, no createIssue mutation is sent
+        verify(restTemplate, times(2)).exchange(eq(GRAPHQL_URL), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class));
+    }
+
+    private void respond(String body) {
+        when(restTemplate.exchange(eq(GRAPHQL_URL), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(ResponseEntity.ok(body));
+    }
+}
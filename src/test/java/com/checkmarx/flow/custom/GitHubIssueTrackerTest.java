@@ -0,0 +1,96 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.flow.config.GitHubProperties;
+import com.checkmarx.flow.dto.Issue;
+import com.checkmarx.flow.dto.ScanRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GitHubIssueTrackerTest {
+
+    private RestTemplate restTemplate;
+    private GitHubProperties properties;
+    private GitHubIssueTracker tracker;
+    private ScanRequest request;
+
+    @Before
+    public void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        properties = new GitHubProperties();
+        properties.setApiUrl("https://api.github.com/repos");
+        properties.setToken("token");
+        tracker = new GitHubIssueTracker(restTemplate, properties, new FlowProperties());
+        request = ScanRequest.builder()
+                .namespace("owner")
+                .repoName("repo")
+                .product(ScanRequest.Product.CX)
+                .build();
+    }
+
+    @Test
+    public void streamIssues_LabelWithReservedCharacters_EncodesLabel() {
+        properties.setIssueLabel("cx&flow+#1");
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(com.checkmarx.flow.dto.github.Issue[].class)))
+                .thenReturn(ResponseEntity.ok(new com.checkmarx.flow.dto.github.Issue[0]));
+
+        assertEquals(0, tracker.streamIssues(request).count());
+
+        ArgumentCaptor<URI> uri = ArgumentCaptor.forClass(URI.class);
+        verify(restTemplate).exchange(uri.capture(), eq(HttpMethod.GET), any(HttpEntity.class), eq(com.checkmarx.flow.dto.github.Issue[].class));
+        assertEquals("https://api.github.com/repos/owner/repo/issues?state=all&per_page=100&labels=cx%26flow%2B%231",
+                uri.getValue().toString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void streamIssues_PageNotModified_ReturnsCachedIssuesWithoutBody() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"page-1\"");
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(com.checkmarx.flow.dto.github.Issue[].class)))
+                .thenReturn(new ResponseEntity<>(new com.checkmarx.flow.dto.github.Issue[]{getIssue()}, headers, HttpStatus.OK))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_MODIFIED));
+
+        tracker.streamIssues(request).count();
+        List<Issue> issues = tracker.streamIssues(request).collect(Collectors.toList());
+
+        assertEquals(1, issues.size());
+        assertEquals("CX SQL_Injection @ a.java [master]", issues.get(0).getTitle());
+        assertNull(issues.get(0).getBody());
+        ArgumentCaptor<HttpEntity> entity = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).exchange(any(URI.class), eq(HttpMethod.GET), entity.capture(), eq(com.checkmarx.flow.dto.github.Issue[].class));
+        assertTrue(entity.getAllValues().get(1).getHeaders().getIfNoneMatch().contains("\"page-1\""));
+    }
+
+    private static com.checkmarx.flow.dto.github.Issue getIssue() {
+        com.checkmarx.flow.dto.github.Issue issue = new com.checkmarx.flow.dto.github.Issue();
+        issue.setTitle("CX SQL_Injection @ a.java [master]");
+        issue.setBody("Body");
+        issue.setUrl("https://api.github.com/repos/owner/repo/issues/1");
+        issue.setState("open");
+        issue.setLabels(Collections.emptyList());
+        return issue;
+    }
+}
@@ -0,0 +1,72 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.flow.config.GitLabProperties;
+import com.checkmarx.flow.dto.ScanRequest;
+import com.checkmarx.flow.service.FilenameFormatter;
+import com.checkmarx.sdk.dto.ScanResults;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+
+public class GitLabSecurityDashboardTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void complete_SeveralLines_WritesOneVulnerabilityPerLine() throws Exception {
+        FlowProperties flowProperties = new FlowProperties();
+        flowProperties.setMitreUrl("https://cwe.mitre.org/data/definitions/%s.html");
+        GitLabSecurityDashboard dashboard = new GitLabSecurityDashboard(new GitLabProperties(), flowProperties,
+                mock(FilenameFormatter.class));
+        File file = folder.newFile("gl-sast-report.json");
+        ScanRequest request = ScanRequest.builder().build();
+        request.setFilename(file.getPath());
+        ScanResults results = ScanResults.builder()
+                .xIssues(Arrays.asList(
+                        getIssue("SQL_Injection", "src/a.java", "89", 10, 20),
+                        getIssue("XSS", "src/b.java", "79", 5)))
+                .build();
+
+        dashboard.complete(request, results);
+
+        JsonNode report = new ObjectMapper().readTree(file);
+        assertEquals(2.0, report.get("version").asDouble(), 0);
+        assertFalse(report.has("remediations"));
+        JsonNode vulns = report.get("vulnerabilities");
+        assertEquals(3, vulns.size());
+        assertEquals("SQL_Injection:src/a.java:20", vulns.get(1).get("id").asText());
+        assertEquals("SQL_Injection @ src/a.java : 20", vulns.get(1).get("message").asText());
+        assertEquals(20, vulns.get(1).get("location").get("start_line").asInt());
+        assertEquals("src/b.java", vulns.get(2).get("location").get("file").asText());
+        assertEquals("CWE-79", vulns.get(2).get("identifiers").get(1).get("name").asText());
+        assertEquals("Checkmarx", vulns.get(2).get("scanner").get("id").asText());
+    }
+
+    private static ScanResults.XIssue getIssue(String vulnerability, String file, String cwe, Integer... lines) {
+        Map<Integer, ScanResults.IssueDetails> details = new LinkedHashMap<>();
+        for (Integer line : lines) {
+            details.put(line, new ScanResults.IssueDetails());
+        }
+        return ScanResults.XIssue.builder()
+                .vulnerability(vulnerability)
+                .filename(file)
+                .cwe(cwe)
+                .severity("High")
+                .link("https://cx/finding")
+                .details(details)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.flow.dto.Issue;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class PagedIssuesTest {
+
+    private final AtomicInteger fetchedPages = new AtomicInteger();
+
+    @Test
+    public void stream_ThreePages_ReturnsAllIssuesInOrder() {
+        List<String> ids = PagedIssues.stream(1, this::nextPage, PagedIssuesTest::getIssues)
+                .map(Issue::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("1-a", "1-b", "2-a", "2-b", "3-a", "3-b"), ids);
+    }
+
+    @Test
+    public void stream_FirstIssuesConsumed_FetchesNoFurtherPages() {
+        PagedIssues.stream(1, this::nextPage, PagedIssuesTest::getIssues)
+                .limit(2)
+                .collect(Collectors.toList());
+
+        assertEquals(0, fetchedPages.get());
+    }
+
+    @Test
+    public void stream_NoFirstPage_ReturnsNoIssues() {
+        assertEquals(0, PagedIssues.stream(null, this::nextPage, page -> Collections.<Issue>emptyList()).count());
+    }
+
+    private Integer nextPage(Integer page) {
+        if (page == 3) {
+            return null;
+        }
+        fetchedPages.incrementAndGet();
+        return page + 1;
+    }
+
+    private static List<Issue> getIssues(Integer page) {
+        return Arrays.asList(Issue.builder().id(page + "-a").build(), Issue.builder().id(page + "-b").build());
+    }
+}
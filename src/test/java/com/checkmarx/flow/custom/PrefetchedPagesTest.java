@@ -0,0 +1,60 @@
+package com.checkmarx.flow.custom;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PrefetchedPagesTest {
+
+    private final AtomicInteger fetchedPages = new AtomicInteger();
+
+    @Test
+    public void next_ConcurrentFetches_ReturnsPagesInOrder() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            PrefetchedPages<String> pages = new PrefetchedPages<>(2, 6, 3, executor, this::fetch);
+            List<String> result = new ArrayList<>();
+            for (String page = pages.next(); page != null; page = pages.next()) {
+                result.add(page);
+            }
+
+            assertEquals(Arrays.asList("page-2", "page-3", "page-4", "page-5", "page-6"), result);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void next_FirstPage_FetchesAtMostMaxPending() {
+        PrefetchedPages<String> pages = new PrefetchedPages<>(1, 10, 2, Runnable::run, this::fetch);
+
+        pages.next();
+
+        assertEquals(2, fetchedPages.get());
+    }
+
+    @Test
+    public void next_NoPages_ReturnsNull() {
+        assertNull(new PrefetchedPages<>(2, 1, 2, Runnable::run, this::fetch).next());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void next_FetchFails_RethrowsFetchException() {
+        new PrefetchedPages<String>(1, 1, 2, Runnable::run, page -> {
+            throw new IllegalStateException("Tracker is down");
+        }).next();
+    }
+
+    private String fetch(int page) {
+        fetchedPages.incrementAndGet();
+        return "page-" + page;
+    }
+}
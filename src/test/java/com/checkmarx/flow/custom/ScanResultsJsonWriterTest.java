@@ -0,0 +1,55 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.sdk.dto.ScanResults;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScanResultsJsonWriterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void write_Ndjson_WritesOneFindingPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ScanResultsJsonWriter.write(getResults(), out, true, false);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("SQL_Injection", mapper.readTree(lines[0]).get("vulnerability").asText());
+        assertEquals("XSS", mapper.readTree(lines[1]).get("vulnerability").asText());
+    }
+
+    @Test
+    public void write_JsonGzip_WritesCompressedDocumentWithoutNulls() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ScanResultsJsonWriter.write(getResults(), out, false, true);
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String json = mapper.readTree(in).toString();
+            assertTrue(json.contains("\"vulnerability\":\"SQL_Injection\""));
+            assertFalse(json.contains("\"cve\""));
+        }
+    }
+
+    private static ScanResults getResults() {
+        ScanResults results = new ScanResults();
+        results.setXIssues(Arrays.asList(
+                ScanResults.XIssue.builder().vulnerability("SQL_Injection").filename("a.java").build(),
+                ScanResults.XIssue.builder().vulnerability("XSS").filename("b.java").build()));
+        return results;
+    }
+}
@@ -0,0 +1,158 @@
+package com.checkmarx.flow.custom;
+
+import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.flow.config.ServiceNowProperties;
+import com.checkmarx.flow.dto.Issue;
+import com.checkmarx.flow.dto.IssueOutcome;
+import com.checkmarx.flow.dto.IssueUpdate;
+import com.checkmarx.flow.dto.ScanRequest;
+import com.checkmarx.flow.dto.servicenow.Result;
+import com.checkmarx.sdk.dto.ScanResults;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ServiceNowTrackerBatchTest {
+
+    private static final String API_URL = "https://instance.service-now.com/api/now/table";
+    private static final String BATCH_URL = "https://instance.service-now.com/api/now/v1/batch";
+
+    private RestOperations restOperations;
+    private ServiceNowTracker tracker;
+
+    @Before
+    public void setUp() {
+        restOperations = mock(RestOperations.class);
+        ServiceNowProperties properties = new ServiceNowProperties();
+        properties.setApiUrl(API_URL);
+        tracker = new ServiceNowTracker();
+        ReflectionTestUtils.setField(tracker, "restOperations", restOperations);
+        ReflectionTestUtils.setField(tracker, "properties", properties);
+        ReflectionTestUtils.setField(tracker, "flowProperties", new FlowProperties());
+        ReflectionTestUtils.setField(tracker, "executor", (Executor) Runnable::run);
+    }
+
+    @Test
+    public void streamIssues_RequestsIncidentsOrderedBySysId() {
+        when(restOperations.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(Result.class), eq(0), anyInt()))
+                .thenReturn(ResponseEntity.ok(new Result()));
+
+        assertEquals(0, tracker.streamIssues(getRequest()).count());
+
+        ArgumentCaptor<String> url = ArgumentCaptor.forClass(String.class);
+        verify(restOperations).exchange(url.capture(), eq(HttpMethod.GET), isNull(), eq(Result.class), eq(0), anyInt());
+        assertTrue(url.getValue().contains("sysparm_query=ORDERBYsys_id"));
+    }
+
+    @Test
+    public void updateIssues_BatchResponse_MapsOutcomesByRequestId() throws Exception {
+        JSONArray serviced = new JSONArray()
+                .put(getServicedRequest("1", 200, "{\"result\":{\"sys_id\":\"b\",\"state\":\"1\"}}"))
+                .put(getServicedRequest("0", 403, "{}"));
+        when(restOperations.exchange(eq(BATCH_URL), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(ResponseEntity.ok(new JSONObject().put("serviced_requests", serviced).toString()));
+
+        List<IssueOutcome> outcomes = tracker.updateIssues(Arrays.asList(getUpdate("a"), getUpdate("b"), getUpdate("c")),
+                getRequest());
+
+        assertEquals(3, outcomes.size());
+        assertFalse(outcomes.get(0).isSuccess());
+        assertTrue(outcomes.get(1).isSuccess());
+        assertEquals("b", outcomes.get(1).getIssue().getId());
+        //Not part of the serviced requests
+        assertFalse(outcomes.get(2).isSuccess());
+    }
+
+    @Test
+    public void updateIssues_Batch_SendsBase64IncidentPerRequest() throws Exception {
+        when(restOperations.exchange(eq(BATCH_URL), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(ResponseEntity.ok("{\"serviced_requests\":[]}"));
+
+        tracker.updateIssues(Arrays.asList(getUpdate("a"), getUpdate("b")), getRequest());
+
+        ArgumentCaptor<HttpEntity> entity = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restOperations).exchange(eq(BATCH_URL), eq(HttpMethod.POST), entity.capture(), eq(String.class));
+        JSONArray restRequests = new JSONObject((String) entity.getValue().getBody()).getJSONArray("rest_requests");
+        assertEquals(2, restRequests.length());
+        JSONObject second = restRequests.getJSONObject(1);
+        assertEquals("1", second.getString("id"));
+        assertEquals("PUT", second.getString("method"));
+        assertTrue(second.getString("url").startsWith("/api/now/table/incident/b?"));
+        JSONObject incident = new JSONObject(new String(Base64.getDecoder().decode(second.getString("body")),
+                StandardCharsets.UTF_8));
+        assertEquals("b", incident.getString("sys_id"));
+        assertEquals("High", incident.getString("severity"));
+    }
+
+    @Test
+    public void closeIssues_BatchCallFails_ClosesOneByOne() throws Exception {
+        when(restOperations.exchange(eq(BATCH_URL), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenThrow(new ResourceAccessException("Batch API is unavailable"));
+        List<Issue> issues = Arrays.asList(getIssue("a"), getIssue("b"));
+
+        List<IssueOutcome> outcomes = tracker.closeIssues(issues, getRequest());
+
+        verify(restOperations, times(2)).put(anyString(), any());
+        assertEquals(2, outcomes.size());
+        assertTrue(outcomes.get(0).isSuccess());
+        assertEquals(issues.get(1), outcomes.get(1).getIssue());
+    }
+
+    private static JSONObject getServicedRequest(String id, int statusCode, String body) {
+        return new JSONObject()
+                .put("id", id)
+                .put("status_code", statusCode)
+                .put("status_text", statusCode == 200 ? "OK" : "Forbidden")
+                .put("body", Base64.getEncoder().encodeToString(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static IssueUpdate getUpdate(String id) {
+        return new IssueUpdate(getIssue(id), ScanResults.XIssue.builder()
+                .vulnerability("SQL_Injection")
+                .filename("a.java")
+                .severity("High")
+                .build());
+    }
+
+    private static Issue getIssue(String id) {
+        Issue issue = new Issue();
+        issue.setId(id);
+        return issue;
+    }
+
+    private static ScanRequest getRequest() {
+        return ScanRequest.builder()
+                .id("1")
+                .namespace("owner")
+                .repoName("repo")
+                .branch("master")
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.checkmarx.flow.sastscanning;
+
+import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.exception.CheckmarxException;
+import com.checkmarx.sdk.service.CxClient;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ScanCompletionTrackerTest {
+
+    private static final int STATUS_RUNNING = 3;
+    private static final int STATUS_FINISHED = 7;
+    private static final int STATUS_FAILED = 9;
+
+    private CxClient cxClient;
+    private FlowProperties flowProperties;
+    private ScanCompletionTracker tracker;
+
+    @Before
+    public void setUp() {
+        cxClient = mock(CxClient.class);
+        CxProperties cxProperties = mock(CxProperties.class);
+        when(cxProperties.getScanTimeout()).thenReturn(10);
+        flowProperties = new FlowProperties();
+        flowProperties.setScanCompletionPollInterval(10);
+        flowProperties.setScanCompletionMaxPollInterval(120);
+        tracker = new ScanCompletionTracker(cxClient, cxProperties, flowProperties, mock(TaskScheduler.class), Runnable::run);
+    }
+
+    @Test
+    public void poll_Finished_CompletesWithScanId() throws Exception {
+        when(cxClient.getScanStatus(1)).thenReturn(STATUS_FINISHED);
+        CompletableFuture<Integer> completion = tracker.track(1);
+
+        tracker.poll(secondsFromNow(11));
+
+        assertEquals(Integer.valueOf(1), completion.get());
+        assertEquals(0, tracker.getTrackedScanCount());
+    }
+
+    @Test
+    public void poll_Failed_CompletesExceptionally() {
+        when(cxClient.getScanStatus(1)).thenReturn(STATUS_FAILED);
+        CompletableFuture<Integer> completion = tracker.track(1);
+
+        tracker.poll(secondsFromNow(11));
+
+        assertFailedWith(CheckmarxException.class, completion);
+    }
+
+    @Test
+    public void poll_Running_BacksOffBeforeNextCheck() {
+        when(cxClient.getScanStatus(1)).thenReturn(STATUS_RUNNING);
+        CompletableFuture<Integer> completion = tracker.track(1);
+
+        tracker.poll(secondsFromNow(5));
+        verify(cxClient, times(0)).getScanStatus(anyInt());
+        tracker.poll(secondsFromNow(11));
+        //Next check is due 20 seconds after the first one
+        tracker.poll(secondsFromNow(25));
+        verify(cxClient, times(1)).getScanStatus(1);
+        tracker.poll(secondsFromNow(32));
+        verify(cxClient, times(2)).getScanStatus(1);
+
+        assertFalse(completion.isDone());
+    }
+
+    @Test
+    public void poll_StatusUnavailablePastTimeout_CompletesExceptionally() {
+        when(cxClient.getScanStatus(1)).thenThrow(new IllegalStateException("CxSAST is down"));
+        CompletableFuture<Integer> completion = tracker.track(1);
+
+        tracker.poll(secondsFromNow(11));
+        assertFalse(completion.isDone());
+        tracker.poll(secondsFromNow(TimeUnit.MINUTES.toSeconds(11)));
+
+        assertFailedWith(CheckmarxException.class, completion);
+        assertEquals(0, tracker.getTrackedScanCount());
+    }
+
+    @Test
+    public void poll_MoreDueScansThanBatchSize_ChecksBatchSizeScans() {
+        flowProperties.setScanCompletionBatchSize(2);
+        when(cxClient.getScanStatus(anyInt())).thenReturn(STATUS_RUNNING);
+        tracker.track(1);
+        tracker.track(2);
+        tracker.track(3);
+
+        tracker.poll(secondsFromNow(11));
+
+        verify(cxClient, times(2)).getScanStatus(anyInt());
+        assertEquals(3, tracker.getTrackedScanCount());
+    }
+
+    private static long secondsFromNow(long seconds) {
+        return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(seconds);
+    }
+
+    private static void assertFailedWith(Class<? extends Exception> expected, CompletableFuture<Integer> completion) {
+        try {
+            completion.get();
+            fail("Scan completion should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(expected.isInstance(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail("Interrupted");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.checkmarx.flow.service;
+
+import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.flow.cucumber.integration.azure.publishing.githubflow.ScanResultsBuilder;
+import com.checkmarx.flow.dto.ScanRequest;
+import com.checkmarx.sdk.dto.ScanResults;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FlowServiceTest {
+
+    //Timeouts are scheduled by the executor thread that runs the scan
+    private final Map<Thread, Runnable> timeoutTasks = new ConcurrentHashMap<>();
+    private final AtomicInteger timeoutCount = new AtomicInteger();
+    private ThreadPoolTaskExecutor scannerExecutor;
+    private ResultsService resultsService;
+    private FlowService flowService;
+
+    @Before
+    public void setUp() {
+        scannerExecutor = new ThreadPoolTaskExecutor();
+        scannerExecutor.setCorePoolSize(2);
+        scannerExecutor.initialize();
+        TaskScheduler timeoutScheduler = mock(TaskScheduler.class);
+        when(timeoutScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            timeoutTasks.put(Thread.currentThread(), invocation.getArgument(0));
+            timeoutCount.incrementAndGet();
+            return mock(ScheduledFuture.class);
+        });
+        ProjectNameGenerator projectNameGenerator = mock(ProjectNameGenerator.class);
+        when(projectNameGenerator.determineProjectName(any(ScanRequest.class))).thenReturn("project");
+        FlowProperties flowProperties = new FlowProperties();
+        flowProperties.setParallelScanners(true);
+        resultsService = mock(ResultsService.class);
+        flowService = new FlowService(new ArrayList<>(), projectNameGenerator, resultsService, flowProperties,
+                scannerExecutor, timeoutScheduler, null);
+    }
+
+    @After
+    public void tearDown() {
+        scannerExecutor.shutdown();
+    }
+
+    @Test
+    public void initiateAutomation_ScannerTimesOut_PublishesOtherResultsAndInterruptsScanner() throws Exception {
+        CountDownLatch slowScanStarted = new CountDownLatch(1);
+        CountDownLatch slowScanInterrupted = new CountDownLatch(1);
+        AtomicReference<Thread> slowScanThread = new AtomicReference<>();
+        VulnerabilityScanner fastScanner = new StubScanner(() -> new ScanResultsBuilder().getScanResultsWithSingleFinding("project"));
+        VulnerabilityScanner slowScanner = new StubScanner(() -> {
+            slowScanThread.set(Thread.currentThread());
+            slowScanStarted.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                slowScanInterrupted.countDown();
+            }
+            return null;
+        });
+        ScanRequest request = ScanRequest.builder().vulnerabilityScanners(Arrays.asList(fastScanner, slowScanner)).build();
+
+        flowService.initiateAutomation(request);
+        assertTrue(slowScanStarted.await(5, TimeUnit.SECONDS));
+        timeoutTasks.get(slowScanThread.get()).run();
+
+        ArgumentCaptor<ScanResults> combinedResults = ArgumentCaptor.forClass(ScanResults.class);
+        verify(resultsService, timeout(5000)).publishCombinedResults(eq(request), combinedResults.capture());
+        assertEquals(1, combinedResults.getValue().getXIssues().size());
+        assertTrue(slowScanInterrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void initiateAutomation_ScannerFails_PublishesOtherResults() {
+        VulnerabilityScanner fastScanner = new StubScanner(() -> new ScanResultsBuilder().getScanResultsWithSingleFinding("project"));
+        VulnerabilityScanner failingScanner = new StubScanner(() -> {
+            throw new IllegalStateException("Scanner is down");
+        });
+        ScanRequest request = ScanRequest.builder().vulnerabilityScanners(Arrays.asList(failingScanner, fastScanner)).build();
+
+        flowService.initiateAutomation(request);
+
+        ArgumentCaptor<ScanResults> combinedResults = ArgumentCaptor.forClass(ScanResults.class);
+        verify(resultsService, timeout(5000)).publishCombinedResults(eq(request), combinedResults.capture());
+        assertEquals(1, combinedResults.getValue().getXIssues().size());
+    }
+
+    @Test
+    public void initiateAutomation_ScanWaitsForThread_StartsTimeoutWhenScanStarts() throws Exception {
+        CountDownLatch blockingScansStarted = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ScanResults> blockingScan = () -> {
+            blockingScansStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ScanResultsBuilder().getScanResultsWithSingleFinding("project");
+        };
+        VulnerabilityScanner queuedScanner = new StubScanner(() -> new ScanResultsBuilder().getScanResultsWithSingleFinding("project"));
+        ScanRequest request = ScanRequest.builder()
+                .vulnerabilityScanners(Arrays.asList(new StubScanner(blockingScan), new StubScanner(blockingScan), queuedScanner))
+                .build();
+
+        flowService.initiateAutomation(request);
+        assertTrue(blockingScansStarted.await(5, TimeUnit.SECONDS));
+        //The third scan waits for one of the two executor threads
+        assertEquals(2, timeoutCount.get());
+        release.countDown();
+
+        verify(resultsService, timeout(5000)).publishCombinedResults(eq(request), any(ScanResults.class));
+        assertEquals(3, timeoutCount.get());
+    }
+
+    private static class StubScanner implements VulnerabilityScanner {
+        private final Supplier<ScanResults> scan;
+
+        StubScanner(Supplier<ScanResults> scan) {
+            this.scan = scan;
+        }
+
+        @Override
+        public ScanResults scan(ScanRequest scanRequest) {
+            return scan.get();
+        }
+
+        @Override
+        public ScanResults scanCli(ScanRequest request, String scanType, File... files) {
+            return null;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+    }
+}
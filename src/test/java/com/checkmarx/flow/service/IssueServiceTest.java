@@ -0,0 +1,133 @@
+package com.checkmarx.flow.service;
+
+import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.flow.custom.IssueTracker;
+import com.checkmarx.flow.dto.BugTracker;
+import com.checkmarx.flow.dto.Issue;
+import com.checkmarx.flow.dto.PublishPlan;
+import com.checkmarx.flow.dto.ScanRequest;
+import com.checkmarx.flow.exception.MachinaException;
+import com.checkmarx.sdk.dto.ScanResults;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IssueServiceTest {
+
+    private static final String BEAN = "TestTracker";
+
+    private IssueTracker tracker;
+    private IssueService issueService;
+    private ScanRequest request;
+
+    @Before
+    public void setUp() throws MachinaException {
+        tracker = mock(IssueTracker.class);
+        when(tracker.getFalsePositiveLabel()).thenReturn("false-positive");
+        when(tracker.getXIssueKey(any(), any())).thenAnswer(invocation -> invocation.<ScanResults.XIssue>getArgument(0).getVulnerability());
+        when(tracker.getIssueKey(any(), any())).thenAnswer(invocation -> invocation.<Issue>getArgument(0).getTitle());
+        when(tracker.isIssueOpened(any(), any())).thenReturn(true);
+        when(tracker.streamIssues(any())).thenCallRealMethod();
+
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBean(BEAN)).thenReturn(tracker);
+
+        issueService = new IssueService(new FlowProperties(), Runnable::run);
+        issueService.setApplicationContext(context);
+
+        request = ScanRequest.builder()
+                .product(ScanRequest.Product.CX)
+                .bugTracker(BugTracker.builder().type(BugTracker.Type.CUSTOM).customBean(BEAN).build())
+                .build();
+    }
+
+    @Test
+    public void process_FindingsAndIssues_CreatesUpdatesAndCloses() throws MachinaException {
+        Issue existing = getIssue("1", "SQL_Injection");
+        Issue stale = getIssue("2", "XSS");
+        when(tracker.getIssues(request)).thenReturn(Arrays.asList(existing, stale));
+        when(tracker.createIssue(any(), eq(request))).thenReturn(getIssue("3", "Path_Traversal"));
+        when(tracker.updateIssue(eq(existing), any(), eq(request))).thenReturn(existing);
+
+        Map<String, List<String>> issuesMap = issueService.process(getResults("SQL_Injection", "Path_Traversal"), request);
+
+        assertEquals(Collections.singletonList("3"), issuesMap.get("new"));
+        assertEquals(Collections.singletonList("1"), issuesMap.get("updated"));
+        assertEquals(Collections.singletonList("2"), issuesMap.get("closed"));
+        verify(tracker).closeIssue(stale, request);
+    }
+
+    @Test
+    public void process_CreateFails_ProcessesOtherIssues() throws MachinaException {
+        Issue stale = getIssue("2", "XSS");
+        when(tracker.getIssues(request)).thenReturn(Collections.singletonList(stale));
+        when(tracker.createIssue(any(), eq(request))).thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+
+        Map<String, List<String>> issuesMap = issueService.process(getResults("Path_Traversal"), request);
+
+        assertEquals(Collections.emptyList(), issuesMap.get("new"));
+        assertEquals(Collections.singletonList("2"), issuesMap.get("closed"));
+        verify(tracker).complete(eq(request), any());
+    }
+
+    @Test
+    public void process_CreateFailsWithServerError_CompletesBeforeThrowing() throws MachinaException {
+        when(tracker.getIssues(request)).thenReturn(Collections.emptyList());
+        when(tracker.createIssue(any(), eq(request))).thenThrow(new IllegalStateException("Tracker is down"));
+
+        try {
+            issueService.process(getResults("Path_Traversal"), request);
+            fail("Failed issues should be reported");
+        } catch (MachinaException e) {
+            assertTrue(e.getMessage().contains("Tracker is down"));
+        }
+
+        verify(tracker).complete(eq(request), any());
+    }
+
+    @Test
+    public void getPublishPlan_FindingsAndIssues_ReturnsKeysWithoutWrites() throws MachinaException {
+        when(tracker.getIssues(request)).thenReturn(Arrays.asList(getIssue("1", "SQL_Injection"), getIssue("2", "XSS")));
+
+        PublishPlan plan = issueService.getPublishPlan(getResults("SQL_Injection", "Path_Traversal"), request);
+
+        assertEquals(Collections.singletonList("Path_Traversal"), plan.getIssuesToCreate());
+        assertEquals(Collections.singletonList("SQL_Injection"), plan.getIssuesToUpdate());
+        assertEquals(Collections.singletonList("XSS"), plan.getIssuesToClose());
+        verify(tracker).initPlanning(eq(request), any());
+        verify(tracker, never()).init(any(), any());
+        verify(tracker, never()).createIssue(any(), any());
+        verify(tracker, never()).updateIssue(any(), any(), any());
+        verify(tracker, never()).closeIssue(any(), any());
+    }
+
+    private static Issue getIssue(String id, String title) {
+        return Issue.builder().id(id).title(title).labels(Collections.emptyList()).build();
+    }
+
+    private static ScanResults getResults(String... vulnerabilities) {
+        ScanResults results = new ScanResults();
+        results.setXIssues(Arrays.stream(vulnerabilities)
+                .map(vulnerability -> ScanResults.XIssue.builder().vulnerability(vulnerability).build())
+                .collect(Collectors.toList()));
+        return results;
+    }
+}
@@ -0,0 +1,91 @@
+package com.checkmarx.flow.service;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.checkmarx.flow.config.JiraProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JiraIssueIndexTest {
+
+    private static final String JQL = "project = AT1 and issueType = \"Bug\"";
+
+    private JiraProperties jiraProperties;
+    private JiraIssueIndex issueIndex;
+    private final List<String> queries = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        jiraProperties = new JiraProperties();
+        issueIndex = new JiraIssueIndex(jiraProperties);
+    }
+
+    @Test
+    public void getIssues_SecondCall_MergesUpdatedIssues() {
+        Issue first = getIssue("AT1-1");
+        Issue second = getIssue("AT1-2");
+        Issue updatedFirst = getIssue("AT1-1");
+        Issue third = getIssue("AT1-3");
+
+        issueIndex.getIssues(JQL, search(Arrays.asList(first, second)));
+        List<Issue> issues = issueIndex.getIssues(JQL, search(Arrays.asList(updatedFirst, third)));
+
+        assertEquals(Arrays.asList("AT1-1", "AT1-2", "AT1-3"), getKeys(issues));
+        assertSame(updatedFirst, issues.get(0));
+        assertEquals(JQL, queries.get(0));
+        assertTrue(queries.get(1).startsWith("(" + JQL + ") and updated >= \"-"));
+    }
+
+    @Test
+    public void getIssues_FullSyncIntervalElapsed_DropsMissingIssues() {
+        jiraProperties.setIssueIndexFullSyncInterval(0);
+
+        issueIndex.getIssues(JQL, search(Arrays.asList(getIssue("AT1-1"), getIssue("AT1-2"))));
+        List<Issue> issues = issueIndex.getIssues(JQL, search(Collections.singletonList(getIssue("AT1-2"))));
+
+        assertEquals(Collections.singletonList("AT1-2"), getKeys(issues));
+        assertEquals(JQL, queries.get(1));
+    }
+
+    @Test
+    public void getIssues_MoreQueriesThanIndexSize_SyncsEvictedQueryAgain() {
+        jiraProperties.setIssueIndexSize(1);
+        issueIndex = new JiraIssueIndex(jiraProperties);
+        String otherJql = "project = AT2 and issueType = \"Bug\"";
+
+        issueIndex.getIssues(JQL, search(Collections.singletonList(getIssue("AT1-1"))));
+        issueIndex.getIssues(otherJql, search(Collections.singletonList(getIssue("AT2-1"))));
+        issueIndex.getIssues(JQL, search(Collections.singletonList(getIssue("AT1-1"))));
+
+        assertEquals(Arrays.asList(JQL, otherJql, JQL), queries);
+    }
+
+    private Function<String, List<Issue>> search(List<Issue> result) {
+        return jql -> {
+            queries.add(jql);
+            return result;
+        };
+    }
+
+    private static Issue getIssue(String key) {
+        Issue issue = mock(Issue.class);
+        when(issue.getKey()).thenReturn(key);
+        return issue;
+    }
+
+    private static List<String> getKeys(List<Issue> issues) {
+        return issues.stream().map(Issue::getKey).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,53 @@
+package com.checkmarx.flow.service;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.checkmarx.flow.config.JiraProperties;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class JiraMetadataCacheTest {
+
+    private JiraMetadataCache metadataCache;
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        metadataCache = new JiraMetadataCache(new JiraProperties());
+    }
+
+    @Test
+    public void getFieldIds_CalledTwice_LoadsOnce() {
+        metadataCache.getFieldIds("AT1", "Bug", this::loadFieldIds);
+        Map<String, String> fieldIds = metadataCache.getFieldIds("AT1", "Bug", this::loadFieldIds);
+
+        assertEquals("customfield_10000", fieldIds.get("Application"));
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    public void invalidateAll_AfterLoad_LoadsAgain() {
+        metadataCache.getFieldIds("AT1", "Bug", this::loadFieldIds);
+        metadataCache.invalidateAll();
+        metadataCache.getFieldIds("AT1", "Bug", this::loadFieldIds);
+
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test(expected = RestClientException.class)
+    public void getFieldIds_LoaderFails_RethrowsLoaderException() {
+        metadataCache.getFieldIds("AT1", "Bug", () -> {
+            throw new RestClientException(new IllegalStateException("Jira is down"));
+        });
+    }
+
+    private Map<String, String> loadFieldIds() {
+        loadCount.incrementAndGet();
+        return ImmutableMap.of("Application", "customfield_10000");
+    }
+}
@@ -1,13 +1,72 @@
 package com.checkmarx.flow.service;
 
+import com.atlassian.jira.rest.client.api.IssueRestClient;
+import com.atlassian.jira.rest.client.api.domain.BasicIssue;
+import com.atlassian.jira.rest.client.api.domain.BulkOperationErrorResult;
+import com.atlassian.jira.rest.client.api.domain.BulkOperationResult;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.Status;
+import com.atlassian.jira.rest.client.api.domain.input.IssueInput;
+import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.flow.config.JiraProperties;
+import com.checkmarx.flow.dto.BugTracker;
+import com.checkmarx.flow.dto.ScanRequest;
+import com.checkmarx.sdk.dto.ScanResults;
+import io.atlassian.util.concurrent.Promise;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class JiraServiceTest {
 
+    private static final String ISSUE_KEY = "AT1-1";
+
+    private JiraService jiraService;
+    private JiraMetadataCache metadataCache;
+    private IssueRestClient issueClient;
+    private ScanRequest request;
+
     @Before
+    @SuppressWarnings("unchecked")
     public void setUp() throws Exception {
+        JiraProperties jiraProperties = new JiraProperties();
+        jiraProperties.setUpdateFingerprint(true);
+        metadataCache = mock(JiraMetadataCache.class);
+        jiraService = new JiraService(jiraProperties, new FlowProperties(), Runnable::run, metadataCache);
+        issueClient = mock(IssueRestClient.class);
+        ReflectionTestUtils.setField(jiraService, "issueClient", issueClient);
+        Promise<Void> updated = mock(Promise.class);
+        when(issueClient.updateIssue(eq(ISSUE_KEY), any(IssueInput.class))).thenReturn(updated);
+        request = ScanRequest.builder()
+                .product(ScanRequest.Product.CX)
+                .bugTracker(BugTracker.builder()
+                        .type(BugTracker.Type.JIRA)
+                        .openStatus(Collections.singletonList("Open"))
+                        .closedStatus(Collections.singletonList("Closed"))
+                        .priorities(new HashMap<>())
+                        .build())
+                .build();
     }
 
     @Test
@@ -37,4 +96,124 @@ public class JiraServiceTest {
     @Test
     public void process() {
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getCreatedIssueKeys_MiddleElementRejected_MapsCreatedIssuesToOtherFindings() {
+        BulkOperationErrorResult error = mock(BulkOperationErrorResult.class);
+        when(error.getFailedElementNumber()).thenReturn(1);
+        BulkOperationResult<BasicIssue> result = mock(BulkOperationResult.class);
+        when(result.getErrors()).thenReturn(Collections.singletonList(error));
+        List<BasicIssue> createdIssues = Arrays.asList(getBasicIssue("AT1-10"), getBasicIssue("AT1-11"));
+        when(result.getIssues()).thenReturn(createdIssues);
+        Map<String, String> errors = new LinkedHashMap<>();
+
+        Map<String, String> createdIssueKeys = JiraService.getCreatedIssueKeys(Arrays.asList("SQL_Injection", "XSS", "Path_Traversal"), result, errors);
+
+        assertEquals(Collections.singleton("XSS"), errors.keySet());
+        assertEquals("AT1-10", createdIssueKeys.get("SQL_Injection"));
+        assertEquals("AT1-11", createdIssueKeys.get("Path_Traversal"));
+        assertEquals(2, createdIssueKeys.size());
+    }
+
+    @Test
+    public void updateIssue_NoFingerprint_WritesFingerprintLabel() throws Exception {
+        Issue issue = getIssue(Collections.singleton("other-label"), "Open");
+
+        jiraService.updateIssue(issue, getFinding(), request);
+
+        List<String> labels = getWrittenLabels(1);
+        assertEquals("other-label", labels.get(0));
+        assertTrue(labels.get(1).startsWith("cxflow-fingerprint:"));
+    }
+
+    @Test
+    public void updateIssue_FingerprintUnchanged_SkipsUpdate() throws Exception {
+        jiraService.updateIssue(getIssue(Collections.emptySet(), "Open"), getFinding(), request);
+        String fingerprintLabel = getWrittenLabels(1).get(0);
+
+        Issue upToDate = getIssue(Collections.singleton(fingerprintLabel), "Open");
+        assertNull(jiraService.updateIssue(upToDate, getFinding(), request));
+
+        verify(issueClient, times(1)).updateIssue(eq(ISSUE_KEY), any(IssueInput.class));
+    }
+
+    @Test
+    public void updateIssue_OnlyScanIdChanged_SkipsUpdate() throws Exception {
+        jiraService.updateIssue(getIssue(Collections.emptySet(), "Open"), getFinding(1000026), request);
+        String fingerprintLabel = getWrittenLabels(1).get(0);
+
+        Issue upToDate = getIssue(Collections.singleton(fingerprintLabel), "Open");
+        assertNull(jiraService.updateIssue(upToDate, getFinding(1000027), request));
+
+        verify(issueClient, times(1)).updateIssue(eq(ISSUE_KEY), any(IssueInput.class));
+    }
+
+    @Test
+    public void updateIssue_OnlySystemDateChanged_SkipsUpdate() throws Exception {
+        when(metadataCache.getFieldIds(any(), any(), any())).thenReturn(Collections.singletonMap("Due Date", "customfield_10"));
+        request.getBugTracker().setFields(Collections.singletonList(getSystemDateField(0)));
+        jiraService.updateIssue(getIssue(Collections.emptySet(), "Open"), getFinding(), request);
+        String fingerprintLabel = getWrittenLabels(1).get(0);
+
+        request.getBugTracker().setFields(Collections.singletonList(getSystemDateField(1)));
+        Issue upToDate = getIssue(Collections.singleton(fingerprintLabel), "Open");
+        assertNull(jiraService.updateIssue(upToDate, getFinding(), request));
+
+        verify(issueClient, times(1)).updateIssue(eq(ISSUE_KEY), any(IssueInput.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Issue getIssue(Set<String> labels, String status) {
+        Issue issue = mock(Issue.class);
+        when(issue.getKey()).thenReturn(ISSUE_KEY);
+        when(issue.getLabels()).thenReturn(new HashSet<>(labels));
+        Status issueStatus = mock(Status.class);
+        when(issueStatus.getName()).thenReturn(status);
+        when(issue.getStatus()).thenReturn(issueStatus);
+        Promise<Issue> promise = mock(Promise.class);
+        when(promise.claim()).thenReturn(issue);
+        when(issueClient.getIssue(ISSUE_KEY)).thenReturn(promise);
+        return issue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> getWrittenLabels(int updateCount) {
+        ArgumentCaptor<IssueInput> input = ArgumentCaptor.forClass(IssueInput.class);
+        verify(issueClient, times(updateCount)).updateIssue(eq(ISSUE_KEY), input.capture());
+        return (List<String>) input.getValue().getField("labels").getValue();
+    }
+
+    private static ScanResults.XIssue getFinding() {
+        return ScanResults.XIssue.builder()
+                .vulnerability("SQL_Injection")
+                .severity("High")
+                .description("SQL injection")
+                .build();
+    }
+
+    private static ScanResults.XIssue getFinding(int scanId) {
+        return ScanResults.XIssue.builder()
+                .vulnerability("SQL_Injection")
+                .severity("High")
+                .description("SQL injection")
+                .link("http://localhost/CxWebClient/ViewerMain.aspx?scanid=" + scanId + "&projectid=6&pathid=2")
+                .build();
+    }
+
+    private static com.checkmarx.flow.dto.Field getSystemDateField(int offset) {
+        com.checkmarx.flow.dto.Field field = new com.checkmarx.flow.dto.Field();
+        field.setType("result");
+        field.setName("system-date");
+        field.setJiraFieldName("Due Date");
+        field.setJiraFieldType("text");
+        field.setOffset(offset);
+        return field;
+    }
+
+    private static BasicIssue getBasicIssue(String key) {
+        BasicIssue issue = mock(BasicIssue.class);
+        when(issue.getKey()).thenReturn(key);
+        return issue;
+    }
+}
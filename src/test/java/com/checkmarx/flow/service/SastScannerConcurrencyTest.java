@@ -0,0 +1,104 @@
+package com.checkmarx.flow.service;
+
+import com.checkmarx.flow.config.FlowProperties;
+import com.checkmarx.flow.dto.BugTracker;
+import com.checkmarx.flow.dto.ScanDetails;
+import com.checkmarx.flow.dto.ScanRequest;
+import com.checkmarx.flow.sastscanning.ScanRequestConverter;
+import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.dto.cx.CxScanParams;
+import com.checkmarx.sdk.service.CxClient;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs many SAST scans through a single {@link SastScanner} instance at once and verifies
+ * that every request gets back the details of its own scan.
+ */
+public class SastScannerConcurrencyTest {
+
+    private static final int SCAN_COUNT = 400;
+    private static final int THREAD_COUNT = 32;
+    private static final int SCAN_ID_OFFSET = 100000;
+
+    private SastScanner sastScanner;
+
+    @Before
+    public void setUp() throws Exception {
+        CxClient cxClient = mock(CxClient.class);
+        ScanRequestConverter scanRequestConverter = mock(ScanRequestConverter.class);
+        BugTrackerEventTrigger bugTrackerEventTrigger = mock(BugTrackerEventTrigger.class);
+
+        when(scanRequestConverter.determineTeamAndOwnerID(any(ScanRequest.class))).thenReturn("1");
+        when(scanRequestConverter.determinePresetAndProjectId(any(ScanRequest.class), anyString()))
+                .thenAnswer(invocation -> getProjectId(invocation.getArgument(0)));
+        List<CxScanParams> scanParams = new ArrayList<>();
+        for (int i = 0; i < SCAN_COUNT; i++) {
+            CxScanParams params = mock(CxScanParams.class);
+            when(params.getProjectId()).thenReturn(i);
+            scanParams.add(params);
+        }
+        when(scanRequestConverter.prepareScanParamsObject(any(ScanRequest.class), isNull(), anyString(), anyInt()))
+                .thenAnswer(invocation -> scanParams.get(invocation.getArgument(3)));
+        when(cxClient.createScan(any(CxScanParams.class), anyString()))
+                .thenAnswer(invocation -> ((CxScanParams) invocation.getArgument(0)).getProjectId() + SCAN_ID_OFFSET);
+        doAnswer(invocation -> {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            return null;
+        }).when(cxClient).waitForScanCompletion(anyInt());
+        when(bugTrackerEventTrigger.triggerBugTrackerEvent(any(ScanRequest.class))).thenReturn(BugTracker.Type.JIRA);
+
+        sastScanner = new SastScanner(null, cxClient, null, mock(CxProperties.class), new FlowProperties(), null, null,
+                scanRequestConverter, bugTrackerEventTrigger, null, null);
+    }
+
+    @Test
+    public void executeCxScan_ManyParallelRequests_EachKeepsItsOwnScanId() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<ScanDetails>> results = new ArrayList<>();
+            for (int i = 0; i < SCAN_COUNT; i++) {
+                ScanRequest request = getRequest(i);
+                results.add(executor.submit(() -> sastScanner.executeCxScan(request, null)));
+            }
+
+            for (int i = 0; i < SCAN_COUNT; i++) {
+                ScanDetails scanDetails = results.get(i).get(30, TimeUnit.SECONDS);
+                assertEquals("Wrong project id for request " + i, Integer.valueOf(i), scanDetails.getProjectId());
+                assertEquals("Wrong scan id for request " + i, Integer.valueOf(i + SCAN_ID_OFFSET), scanDetails.getScanId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Integer getProjectId(ScanRequest request) {
+        return Integer.valueOf(request.getProject().substring("project-".length()));
+    }
+
+    private static ScanRequest getRequest(int index) {
+        return ScanRequest.builder()
+                .project("project-" + index)
+                .repoUrl("https://github.com/checkmarx/repo-" + index)
+                .repoType(ScanRequest.Repository.GITHUB)
+                .product(ScanRequest.Product.CX)
+                .build();
+    }
+}